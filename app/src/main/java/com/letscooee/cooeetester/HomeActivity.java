@@ -30,12 +30,16 @@ public class HomeActivity extends AppCompatActivity implements CooeeCTAListener
         com.letscooee.cooeetester.databinding.ActivityHomeBinding binding = ActivityHomeBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
         context = this;
-        cooeeSDK = CooeeSDK.getDefaultInstance(this);
-        cooeeSDK.setCTAListener(this);
         String TAG = "HomeActivity";
-        cooeeSDK.setCurrentScreen(TAG);
 
-        Log.d(TAG, "User ID " + cooeeSDK.getUserID());
+        // The SDK is not initialized in the build which measures the app without it
+        if (BuildConfig.SDK_ENABLED) {
+            cooeeSDK = CooeeSDK.getDefaultInstance(this);
+            cooeeSDK.setCTAListener(this);
+            cooeeSDK.setCurrentScreen(TAG);
+
+            Log.d(TAG, "User ID " + cooeeSDK.getUserID());
+        }
 
         Map<String, Object> eventProps = new HashMap<>();
         Map<String, Object> item = new HashMap<>();
@@ -57,6 +61,10 @@ public class HomeActivity extends AppCompatActivity implements CooeeCTAListener
 
 
         binding.btnSendImageEvent.setOnClickListener(view -> {
+            if (cooeeSDK == null) {
+                return;
+            }
+
             cooeeSDK.sendEvent("Add To Cart", eventProps);
             cooeeSDK.sendEvent("Add To Cart");
         });
@@ -65,13 +73,21 @@ public class HomeActivity extends AppCompatActivity implements CooeeCTAListener
         binding.btnProfile.setOnClickListener(view -> startActivity(intent));
 
         binding.tvUid.setOnClickListener(v -> {
+            if (cooeeSDK == null) {
+                return;
+            }
+
             ClipboardManager clipboard = (ClipboardManager) getSystemService(CLIPBOARD_SERVICE);
             ClipData clip = ClipData.newPlainText("label", cooeeSDK.getUserID());
             clipboard.setPrimaryClip(clip);
             Toast.makeText(context, "Copied!", Toast.LENGTH_SHORT).show();
         });
 
-        binding.ivDebugInfo.setOnClickListener(v -> cooeeSDK.showDebugInfo());
+        binding.ivDebugInfo.setOnClickListener(v -> {
+            if (cooeeSDK != null) {
+                cooeeSDK.showDebugInfo();
+            }
+        });
 
         /************** Animation Calls **********************/
 
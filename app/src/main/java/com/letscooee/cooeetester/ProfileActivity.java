@@ -31,10 +31,16 @@ public class ProfileActivity extends AppCompatActivity {
         animation = intent.getStringExtra("animation");
         overrideAnimation(animation);
 
-        cooee = CooeeSDK.getDefaultInstance(this);
         binding.ivBack.setOnClickListener(v -> {
             finish();
         });
+
+        // The SDK is not initialized in the build which measures the app without it
+        if (!BuildConfig.SDK_ENABLED) {
+            return;
+        }
+
+        cooee = CooeeSDK.getDefaultInstance(this);
         cooee.setCurrentScreen(TAG);
         binding.btnSave.setOnClickListener(v -> {
             if (TextUtils.isEmpty(binding.edtPersonName.getText().toString())) {
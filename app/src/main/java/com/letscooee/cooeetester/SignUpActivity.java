@@ -29,6 +29,10 @@ public class SignUpActivity extends AppCompatActivity {
         buttonSubmit = findViewById(R.id.buttonSubmit);
 
         buttonSubmit.setOnClickListener(view -> {
+            if (!BuildConfig.SDK_ENABLED) {
+                return;
+            }
+
             Map<String, Object> userData = new HashMap<>();
             userData.put("name", editTextName.getText().toString());
             userData.put("mobile", editTextMobile.getText().toString());
@@ -32,11 +32,13 @@ public class SplashActivity extends AppCompatActivity {
         }
         binding = ActivitySplashBinding.inflate(getLayoutInflater());
         setContentView(R.layout.activity_splash);
-        sdk = CooeeSDK.getDefaultInstance(this);
-        try {
-            sdk.setCurrentScreen(TAG);
-            sdk.sendEvent("onCreate", new HashMap<>());
-        } catch (Exception ignored) {
+        if (BuildConfig.SDK_ENABLED) {
+            sdk = CooeeSDK.getDefaultInstance(this);
+            try {
+                sdk.setCurrentScreen(TAG);
+                sdk.sendEvent("onCreate", new HashMap<>());
+            } catch (Exception ignored) {
+            }
         }
         new CountDownTimer(1000, 3000) {
             public void onTick(long millisUntilFinished) {
@@ -54,9 +56,11 @@ public class SplashActivity extends AppCompatActivity {
 
     @Override
     protected void onDestroy() {
-        try {
-            sdk.sendEvent("onDestroy", new HashMap<>());
-        } catch (Exception ignored) {
+        if (sdk != null) {
+            try {
+                sdk.sendEvent("onDestroy", new HashMap<>());
+            } catch (Exception ignored) {
+            }
         }
         super.onDestroy();
     }
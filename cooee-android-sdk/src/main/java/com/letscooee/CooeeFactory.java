@@ -4,19 +4,27 @@ import android.content.Context;
 import androidx.annotation.RestrictTo;
 import com.letscooee.device.AppInfo;
 import com.letscooee.device.DeviceInfo;
+import com.letscooee.init.StartupTracer;
 import com.letscooee.network.BaseHTTPService;
+import com.letscooee.network.ConnectivityMonitor;
 import com.letscooee.network.SafeHTTPService;
 import com.letscooee.retrofit.DeviceAuthService;
 import com.letscooee.room.task.PendingTaskService;
+import com.letscooee.schedular.SyncScheduler;
 import com.letscooee.user.SessionManager;
 import com.letscooee.utils.ManifestReader;
 import com.letscooee.utils.RuntimeData;
 import com.letscooee.utils.SentryHelper;
+import io.sentry.ISpan;
 import io.sentry.ITransaction;
 import io.sentry.Sentry;
 
 /**
  * A factory pattern utility class to provide the singleton instances of various classes.
+ * <p>
+ * Only the cheap instances are created in {@link #init(Context)} (which runs on the main thread at the launch of
+ * the app). Rest of the instances are created when they are first asked for, ideally by {@link #warmUp()} in the
+ * background much before any of them is required.
  *
  * @author Shashank Agrawal
  * @since 0.3.0
@@ -25,16 +33,72 @@ import io.sentry.Sentry;
 public class CooeeFactory {
 
     private static boolean initialized;
+    private static Context context;
     private static AppInfo appInfo;
-    private static DeviceInfo deviceInfo;
-    private static RuntimeData runtimeData;
-    private static SentryHelper sentryHelper;
-    private static SessionManager sessionManager;
     private static ManifestReader manifestReader;
-    private static BaseHTTPService baseHTTPService;
-    private static SafeHTTPService safeHTTPService;
-    private static DeviceAuthService deviceAuthService;
-    private static PendingTaskService pendingTaskService;
+
+    private static final Provider<SentryHelper> sentryHelper = new Provider<SentryHelper>() {
+        @Override
+        SentryHelper create() {
+            SentryHelper helper = new SentryHelper(context, appInfo, manifestReader);
+            helper.init();
+            return helper;
+        }
+    };
+
+    private static final Provider<DeviceInfo> deviceInfo = new Provider<DeviceInfo>() {
+        @Override
+        DeviceInfo create() {
+            return DeviceInfo.getInstance(context);
+        }
+    };
+
+    private static final Provider<RuntimeData> runtimeData = new Provider<RuntimeData>() {
+        @Override
+        RuntimeData create() {
+            return RuntimeData.getInstance(context);
+        }
+    };
+
+    private static final Provider<SessionManager> sessionManager = new Provider<SessionManager>() {
+        @Override
+        SessionManager create() {
+            return SessionManager.getInstance(context);
+        }
+    };
+
+    private static final Provider<BaseHTTPService> baseHTTPService = new Provider<BaseHTTPService>() {
+        @Override
+        BaseHTTPService create() {
+            return new BaseHTTPService(context);
+        }
+    };
+
+    private static final Provider<DeviceAuthService> deviceAuthService = new Provider<DeviceAuthService>() {
+        @Override
+        DeviceAuthService create() {
+            DeviceAuthService service = new DeviceAuthService(context, getSentryHelper(), manifestReader);
+            service.populateUserDataFromStorage();
+
+            // Drain the pending tasks as soon as the token is acquired as they are waiting for it
+            service.addTokenStateListener(SyncScheduler.newTokenStateListener(context));
+            return service;
+        }
+    };
+
+    private static final Provider<PendingTaskService> pendingTaskService = new Provider<PendingTaskService>() {
+        @Override
+        PendingTaskService create() {
+            return new PendingTaskService(context, getSentryHelper());
+        }
+    };
+
+    private static final Provider<SafeHTTPService> safeHTTPService = new Provider<SafeHTTPService>() {
+        @Override
+        SafeHTTPService create() {
+            return new SafeHTTPService(context, getPendingTaskService(), getSessionManager(), getRuntimeData());
+        }
+    };
 
     private CooeeFactory() {
     }
@@ -44,29 +108,46 @@ public class CooeeFactory {
             return;
         }
 
+        long startTime = StartupTracer.begin(StartupTracer.PHASE_FACTORY_INIT);
+
+        CooeeFactory.context = context.getApplicationContext();
         appInfo = AppInfo.getInstance(context);
-        deviceInfo = DeviceInfo.getInstance(context);
         manifestReader = ManifestReader.getInstance(context);
-        sentryHelper = new SentryHelper(context, appInfo, manifestReader);
-        sentryHelper.init();
 
-        // Sentry should be initialized first
-        ITransaction transaction = Sentry.startTransaction("CooeeFactory.init()", "task");
+        initialized = true;
+
+        StartupTracer.end(StartupTracer.PHASE_FACTORY_INIT, startTime);
+    }
 
-        baseHTTPService = new BaseHTTPService(context);
+    /**
+     * Create the remaining instances so that they are ready before they are used. This does the disk and database
+     * reads and should not be called on the main thread.
+     */
+    public static void warmUp() {
+        long startTime = StartupTracer.begin(StartupTracer.PHASE_WARM_UP);
 
-        // This is required in PendingTaskService (ultimately). TODO make this a strong dependency
-        deviceAuthService = new DeviceAuthService(context, sentryHelper, manifestReader);
-        deviceAuthService.populateUserDataFromStorage();
+        // Sentry should be initialized first
+        getSentryHelper();
+        ITransaction transaction = Sentry.startTransaction("CooeeFactory.warmUp()", "task");
 
-        pendingTaskService = new PendingTaskService(context, sentryHelper);
-        runtimeData = RuntimeData.getInstance(context);
-        sessionManager = SessionManager.getInstance(context);
-        safeHTTPService = new SafeHTTPService(context, pendingTaskService, sessionManager, runtimeData);
+        // The token is required in almost every request, so populate it as early as possible
+        warmUp(transaction, "DeviceAuthService", deviceAuthService);
+        warmUp(transaction, "SafeHTTPService", safeHTTPService);
+        warmUp(transaction, "BaseHTTPService", baseHTTPService);
+        warmUp(transaction, "DeviceInfo", deviceInfo);
+
+        // Start listening to the network changes
+        ConnectivityMonitor.getInstance(context);
 
         transaction.finish();
 
-        initialized = true;
+        StartupTracer.end(StartupTracer.PHASE_WARM_UP, startTime);
+    }
+
+    private static void warmUp(ITransaction transaction, String name, Provider<?> provider) {
+        ISpan span = transaction.startChild("create", name);
+        provider.get();
+        span.finish();
     }
 
     public static AppInfo getAppInfo() {
@@ -74,15 +155,15 @@ public class CooeeFactory {
     }
 
     public static DeviceInfo getDeviceInfo() {
-        return deviceInfo;
+        return deviceInfo.get();
     }
 
     public static RuntimeData getRuntimeData() {
-        return runtimeData;
+        return runtimeData.get();
     }
 
     public static SentryHelper getSentryHelper() {
-        return sentryHelper;
+        return sentryHelper.get();
     }
 
     public static ManifestReader getManifestReader() {
@@ -90,22 +171,63 @@ public class CooeeFactory {
     }
 
     public static SessionManager getSessionManager() {
-        return sessionManager;
+        return sessionManager.get();
     }
 
     public static BaseHTTPService getBaseHTTPService() {
-        return baseHTTPService;
+        return baseHTTPService.get();
     }
 
     public static SafeHTTPService getSafeHTTPService() {
-        return safeHTTPService;
+        return safeHTTPService.get();
     }
 
     public static DeviceAuthService getDeviceAuthService() {
-        return deviceAuthService;
+        return deviceAuthService.get();
     }
 
     public static PendingTaskService getPendingTaskService() {
-        return pendingTaskService;
+        return pendingTaskService.get();
+    }
+
+    /**
+     * Creates the instance on the first {@link #get()} and returns the same afterwards.
+     *
+     * @param <T> Type of the instance.
+     */
+    private abstract static class Provider<T> {
+
+        private volatile T instance;
+        private boolean creating;
+
+        abstract T create();
+
+        T get() {
+            T result = instance;
+            if (result != null) {
+                return result;
+            }
+
+            synchronized (this) {
+                if (instance == null) {
+                    if (context == null) {
+                        throw new IllegalStateException("CooeeFactory is not initialized");
+                    }
+
+                    if (creating) {
+                        throw new IllegalStateException("Circular dependency while creating the instance");
+                    }
+
+                    creating = true;
+                    try {
+                        instance = create();
+                    } finally {
+                        creating = false;
+                    }
+                }
+
+                return instance;
+            }
+        }
     }
 }
@@ -6,17 +6,16 @@ import android.content.Intent;
 import androidx.annotation.NonNull;
 
 import com.letscooee.device.DebugInfoActivity;
+import com.letscooee.init.StartupTracer;
 import com.letscooee.models.Event;
-import com.letscooee.network.SafeHTTPService;
-import com.letscooee.retrofit.DeviceAuthService;
 import com.letscooee.task.CooeeExecutors;
+import com.letscooee.task.ExecutorMetrics;
 import com.letscooee.utils.CooeeCTAListener;
 import com.letscooee.utils.PropertyNameException;
-import com.letscooee.utils.RuntimeData;
-import com.letscooee.utils.SentryHelper;
 
 import java.lang.ref.WeakReference;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,10 +30,6 @@ public class CooeeSDK {
     private static CooeeSDK cooeeSDK;
 
     private final Context context;
-    private final RuntimeData runtimeData;
-    private final SentryHelper sentryHelper;
-    private final DeviceAuthService deviceAuthService;
-    private final SafeHTTPService safeHTTPService;
 
     private WeakReference<CooeeCTAListener> ctaListener;
 
@@ -45,12 +40,10 @@ public class CooeeSDK {
      */
     private CooeeSDK(@NonNull Context context) {
         this.context = context.getApplicationContext();
-        this.runtimeData = CooeeFactory.getRuntimeData();
-        this.sentryHelper = CooeeFactory.getSentryHelper();
-        this.safeHTTPService = CooeeFactory.getSafeHTTPService();
-        this.deviceAuthService = CooeeFactory.getDeviceAuthService();
 
-        CooeeExecutors.getInstance().singleThreadExecutor().execute(this.deviceAuthService::acquireSDKToken);
+        // The services are looked up when used so that the app's main thread does not create them here
+        CooeeExecutors.getInstance().singleThreadExecutor().execute(() ->
+                CooeeFactory.getDeviceAuthService().acquireSDKToken());
     }
 
     /**
@@ -99,7 +92,7 @@ public class CooeeSDK {
         containsSystemDataPrefix(eventProperties);
 
         Event event = new Event(eventName, eventProperties);
-        this.safeHTTPService.sendEvent(event);
+        CooeeFactory.getSafeHTTPService().sendEvent(event);
     }
 
     /**
@@ -163,8 +156,8 @@ public class CooeeSDK {
 
         containsSystemDataPrefix(userData);
 
-        this.sentryHelper.setUserInfo(userData);
-        this.safeHTTPService.updateUserProfile(userData);
+        CooeeFactory.getSentryHelper().setUserInfo(userData);
+        CooeeFactory.getSafeHTTPService().updateUserProfile(userData);
     }
 
     /**
@@ -173,7 +166,7 @@ public class CooeeSDK {
      * @param screenName Name of the screen. Like Login, Cart, Wishlist etc.
      */
     public void setCurrentScreen(String screenName) {
-        this.runtimeData.setCurrentScreenName(screenName);
+        CooeeFactory.getRuntimeData().setCurrentScreenName(screenName);
     }
 
     /**
@@ -183,7 +176,7 @@ public class CooeeSDK {
      */
     @Deprecated
     public String getCurrentScreenName() {
-        return this.runtimeData.getCurrentScreenName();
+        return CooeeFactory.getRuntimeData().getCurrentScreenName();
     }
 
     @Deprecated
@@ -192,7 +185,7 @@ public class CooeeSDK {
     }
 
     public String getUserID() {
-        return this.deviceAuthService.getUserID();
+        return CooeeFactory.getDeviceAuthService().getUserID();
     }
 
     public void setCTAListener(CooeeCTAListener listener) {
@@ -213,6 +206,27 @@ public class CooeeSDK {
         context.startActivity(intent);
     }
 
+    /**
+     * Time taken by the SDK in each phase of the app launch, for example, <code>Cooee.bootstrap</code> (on the main
+     * thread) or <code>Cooee.asyncTasks</code> (in background). The same names are used as the
+     * {@link android.os.Trace} sections so the phases can also be seen in a system trace.
+     *
+     * @return Durations in milliseconds by the phase names.
+     */
+    public Map<String, Double> getStartupDurations() {
+        return StartupTracer.getDurations();
+    }
+
+    /**
+     * Current state of the background thread pools of the SDK like the queue depth, active threads and the time
+     * the tasks wait and run. Useful to monitor the background work done by the SDK.
+     *
+     * @return Metrics of every thread pool of the SDK.
+     */
+    public List<ExecutorMetrics> getExecutorMetrics() {
+        return CooeeExecutors.getInstance().getMetrics();
+    }
+
     /**
      * Check if map key starts with {@link #SYSTEM_DATA_PREFIX}
      *
@@ -3,10 +3,10 @@ package com.letscooee.broadcast;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import com.letscooee.schedular.CooeeJobUtils;
+import com.letscooee.schedular.SyncScheduler;
 
 /**
- * Registers {@link com.letscooee.schedular.job.PendingTaskJob} when device boots.
+ * Schedules the sync of the pending tasks (see {@link SyncScheduler}) when device boots.
  *
  * @author Ashish Gaikwad on 19/5/21
  * @version 0.3.0
@@ -15,6 +15,6 @@ public class CooeeJobSchedulerBroadcast extends BroadcastReceiver {
 
     @Override
     public void onReceive(Context context, Intent intent) {
-        CooeeJobUtils.schedulePendingTaskJob(context);
+        SyncScheduler.schedule(context);
     }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ public class HttpRequestFailedException extends Exception {
 
     Integer responseCode;
     Object responseBody;
+    long retryAfterMillis;
 
     public HttpRequestFailedException(String message, Integer responseCode, Object responseBody) {
         super(message);
@@ -17,6 +18,12 @@ public class HttpRequestFailedException extends Exception {
         this.responseBody = responseBody;
     }
 
+    public HttpRequestFailedException(String message, Integer responseCode, Object responseBody,
+                                      long retryAfterMillis) {
+        this(message, responseCode, responseBody);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
     public HttpRequestFailedException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -25,4 +32,17 @@ public class HttpRequestFailedException extends Exception {
         super(message, cause);
         this.responseCode = responseCode;
     }
+
+    public Integer getResponseCode() {
+        return responseCode;
+    }
+
+    /**
+     * The minimum time the server asked to wait (via <code>Retry-After</code> header) before retrying the request.
+     *
+     * @return the delay in milliseconds or 0 if the server did not ask for any.
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
 }
@@ -14,6 +14,7 @@ import com.google.gson.reflect.TypeToken;
 import com.letscooee.CooeeFactory;
 import com.letscooee.exceptions.HttpRequestFailedException;
 import com.letscooee.models.AppFont;
+import com.letscooee.room.storage.KeyValueStore;
 import com.letscooee.utils.Constants;
 import com.letscooee.utils.LocalStorageHelper;
 
@@ -75,9 +76,10 @@ public class FontProcessor {
     }
 
     private static void confirmFontsFromPreference(Context context) {
-        String stringArray = LocalStorageHelper.getString(context, Constants.STORAGE_CACHED_FONTS, null);
+        List<AppFont> cachedFonts = KeyValueStore.getInstance(context)
+                .getAll(KeyValueStore.COLLECTION_CACHED_FONTS, AppFont.class);
 
-        downloadFonts(context, stringArray);
+        downloadFonts(context, cachedFonts);
     }
 
     /**
@@ -137,7 +139,14 @@ public class FontProcessor {
             downloadFont(font, fontFile);
         }
 
-        LocalStorageHelper.putString(context, Constants.STORAGE_CACHED_FONTS, gson.toJson(fontList));
+        Map<String, AppFont> fontsByName = new LinkedHashMap<>();
+        for (AppFont font : fontList) {
+            if (!isEmpty(font.getName())) {
+                fontsByName.put(font.getName(), font);
+            }
+        }
+
+        KeyValueStore.getInstance(context).replaceAll(KeyValueStore.COLLECTION_CACHED_FONTS, fontsByName);
     }
 
     public static File getFontFile(File parentDirectory, String name) {
@@ -10,7 +10,7 @@ import com.letscooee.CooeeFactory;
 import com.letscooee.ar.ARHelper;
 import com.letscooee.broadcast.ARActionPerformed;
 import com.letscooee.models.Event;
-import com.letscooee.network.SafeHTTPService;
+import com.letscooee.room.task.PendingTaskService;
 import com.letscooee.task.CooeeExecutors;
 import com.letscooee.user.NewSessionExecutor;
 import com.letscooee.user.SessionManager;
@@ -22,48 +22,77 @@ import java.util.Map;
 class AppLifecycleCallback implements DefaultLifecycleObserver {
 
     private final Context context;
-    private final RuntimeData runtimeData;
-    private final SessionManager sessionManager;
 
-    private final SafeHTTPService safeHTTPService;
-    private final NewSessionExecutor sessionExecutor;
+    /**
+     * Only accessed from the single thread executor.
+     */
+    private NewSessionExecutor sessionExecutor;
 
     AppLifecycleCallback(Context context) {
+        // The services are looked up when the callbacks are invoked so that they can be created in background
         this.context = context;
-        this.runtimeData = CooeeFactory.getRuntimeData();
-        this.sessionManager = CooeeFactory.getSessionManager();
-        this.safeHTTPService = CooeeFactory.getSafeHTTPService();
-        this.sessionExecutor = new NewSessionExecutor(context);
+    }
+
+    /**
+     * Must only be called from the single thread executor.
+     */
+    private NewSessionExecutor getSessionExecutor() {
+        if (sessionExecutor == null) {
+            sessionExecutor = new NewSessionExecutor(context);
+        }
+
+        return sessionExecutor;
     }
 
     @Override
     public void onCreate(@NonNull LifecycleOwner owner) {
-        sessionManager.checkSessionExpiry();
-        CooeeExecutors.getInstance().singleThreadExecutor().execute(() -> new NewSessionExecutor(context).execute());
-
+        // Called on the main thread while the SDK is initialised. Concluding an expired session needs the storage,
+        // database & HTTP services so everything is done in the background
+        CooeeExecutors.getInstance().singleThreadExecutor().execute(() -> {
+            long startTime = StartupTracer.begin(StartupTracer.PHASE_FIRST_SESSION);
+            try {
+                CooeeFactory.getSessionManager().checkSessionExpiry();
+                getSessionExecutor().execute();
+            } finally {
+                StartupTracer.end(StartupTracer.PHASE_FIRST_SESSION, startTime);
+            }
+        });
     }
 
     @Override
     public void onResume(@NonNull LifecycleOwner owner) {
+        // Only the in-memory runtime data is touched on the main thread. The session manager may still have to be
+        // created (which reads the storage) so it is looked up in the background
+        RuntimeData runtimeData = CooeeFactory.getRuntimeData();
+
         //Will set app is in foreground
         runtimeData.setInForeground();
-        sessionManager.keepSessionAlive();
-        sessionManager.checkSessionExpiry();
-
-        if (runtimeData.isFirstForeground()) {
-            return;
-        }
+        boolean firstForeground = runtimeData.isFirstForeground();
 
         CooeeExecutors.getInstance().singleThreadExecutor().execute(() -> {
+            SessionManager sessionManager = CooeeFactory.getSessionManager();
+            sessionManager.keepSessionAlive();
+
+            if (firstForeground) {
+                // The expiry is already checked in onCreate
+                return;
+            }
+
+            sessionManager.checkSessionExpiry();
+
             long backgroundDuration = runtimeData.getTimeInBackgroundInSeconds();
             Map<String, Object> eventProps = new HashMap<>();
             eventProps.put("iaDur", backgroundDuration);
 
             Event event = new Event("CE App Foreground", eventProps);
-            event.setDeviceProps(sessionExecutor.getMutableDeviceProps());
-            safeHTTPService.sendEvent(event);
+            event.setDeviceProps(getSessionExecutor().getMutableDeviceProps());
+            CooeeFactory.getSafeHTTPService().sendEvent(event);
         });
 
+        if (firstForeground) {
+            return;
+        }
+
         // Sent AR CTA once App is resumed
         ARActionPerformed.processLastARResponse(context);
 
@@ -73,25 +102,44 @@ class AppLifecycleCallback implements DefaultLifecycleObserver {
 
     @Override
     public void onStop(@NonNull LifecycleOwner owner) {
+        RuntimeData runtimeData = CooeeFactory.getRuntimeData();
         runtimeData.setInBackground();
 
-        //stop sending check message of session alive on app background
-        sessionManager.stopSessionAlive();
+        // The session manager & the pending task service may still have to be created (which reads the storage &
+        // opens the database) so they are looked up in the background
+        CooeeExecutors.getInstance().singleThreadExecutor().execute(() -> {
+            SessionManager sessionManager = CooeeFactory.getSessionManager();
+            PendingTaskService pendingTaskService = CooeeFactory.getPendingTaskService();
+
+            //stop sending check message of session alive on app background
+            sessionManager.stopSessionAlive();
 
-        if (context == null) {
-            return;
-        }
+            // Store the queued tasks and session state right away (in background) as the process may get killed
+            pendingTaskService.flushPendingWrites();
+            sessionManager.flush();
+
+            // Send the batched events now instead of waiting for the batch timer. Checked on the writer thread,
+            // after the tasks flushed above are stored and queued for the batch
+            CooeeExecutors.getInstance().databaseWriterExecutor().execute(() -> {
+                if (pendingTaskService.hasQueuedEvents()) {
+                    CooeeExecutors.getInstance().networkExecutor().execute(pendingTaskService::flushEventBatch);
+                }
+            });
+
+            if (context == null) {
+                return;
+            }
 
-        CooeeExecutors.getInstance().singleThreadExecutor().execute(() -> {
             long duration = runtimeData.getTimeInForegroundInSeconds();
 
             Map<String, Object> eventProperties = new HashMap<>();
             eventProperties.put("aDur", duration);
 
             Event event = new Event("CE App Background", eventProperties);
-            event.setDeviceProps(sessionExecutor.getMutableDeviceProps());
+            event.setDeviceProps(getSessionExecutor().getMutableDeviceProps());
 
-            safeHTTPService.sendEvent(event);
+            CooeeFactory.getSafeHTTPService().sendEvent(event);
+            pendingTaskService.flushPendingWrites();
         });
     }
 }
@@ -14,7 +14,7 @@ import com.letscooee.CooeeFactory;
 import com.letscooee.ar.ARHelper;
 import com.letscooee.font.FontProcessor;
 import com.letscooee.pushnotification.PushProviderUtils;
-import com.letscooee.schedular.CooeeJobUtils;
+import com.letscooee.schedular.SyncScheduler;
 import com.letscooee.task.CooeeExecutors;
 import com.letscooee.utils.Constants;
 
@@ -45,10 +45,15 @@ public class CooeeBootstrap {
             return;
         }
 
-        CooeeFactory.init(this.context);
-        application.registerActivityLifecycleCallbacks(new ActivityLifecycleCallback(this.context));
-        ProcessLifecycleOwner.get().getLifecycle().addObserver(new AppLifecycleCallback(this.context));
-        this.initAsyncTasks();
+        long startTime = StartupTracer.begin(StartupTracer.PHASE_BOOTSTRAP);
+        try {
+            CooeeFactory.init(this.context);
+            application.registerActivityLifecycleCallbacks(new ActivityLifecycleCallback(this.context));
+            ProcessLifecycleOwner.get().getLifecycle().addObserver(new AppLifecycleCallback(this.context));
+            this.initAsyncTasks();
+        } finally {
+            StartupTracer.end(StartupTracer.PHASE_BOOTSTRAP, startTime);
+        }
     }
 
     /**
@@ -78,19 +83,25 @@ public class CooeeBootstrap {
      */
     private void initAsyncTasks() {
         CooeeExecutors.getInstance().singleThreadExecutor().execute(() -> {
-            getAndUpdateFirebaseToken();
-            checkAndStartJob();
-            FontProcessor.checkAndUpdateBrandFonts(context);
-            ARHelper.checkDeviceSupport(context);
+            long startTime = StartupTracer.begin(StartupTracer.PHASE_ASYNC_TASKS);
+            try {
+                // Should be the first so that the other tasks (queued on the same thread) find the services ready
+                CooeeFactory.warmUp();
+                getAndUpdateFirebaseToken();
+                checkAndStartJob();
+                FontProcessor.checkAndUpdateBrandFonts(context);
+                ARHelper.checkDeviceSupport(context);
+            } finally {
+                StartupTracer.end(StartupTracer.PHASE_ASYNC_TASKS, startTime);
+            }
         });
     }
 
     /**
-     * This method will check if job is currently present or not with system
-     * If job is not present it will add job in a queue
+     * Schedule the sync of the pending tasks (if not already scheduled).
      */
     private void checkAndStartJob() {
-        CooeeJobUtils.schedulePendingTaskJob(context);
+        SyncScheduler.schedule(context);
     }
 
     private void getAndUpdateFirebaseToken() {
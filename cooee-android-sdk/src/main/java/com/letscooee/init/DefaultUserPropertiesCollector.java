@@ -13,8 +13,6 @@ import android.content.pm.PackageManager;
 import android.content.res.Configuration;
 import android.location.Location;
 import android.location.LocationManager;
-import android.net.ConnectivityManager;
-import android.net.NetworkInfo;
 import android.os.BatteryManager;
 import android.os.Build;
 import android.os.Environment;
@@ -25,6 +23,7 @@ import android.util.DisplayMetrics;
 import androidx.core.app.ActivityCompat;
 
 import com.letscooee.CooeeFactory;
+import com.letscooee.network.ConnectivityMonitor;
 import com.letscooee.utils.Constants;
 import com.letscooee.utils.DateUtils;
 import com.letscooee.utils.SentryHelper;
@@ -165,13 +164,7 @@ public class DefaultUserPropertiesCollector {
      * @return "Y" if connected otherwise "N".
      */
     public boolean isConnectedToWifi() {
-        ConnectivityManager connManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
-
-        assert connManager != null;
-        NetworkInfo mWifi = connManager.getNetworkInfo(ConnectivityManager.TYPE_WIFI);
-
-        assert mWifi != null;
-        return mWifi.isConnected();
+        return ConnectivityMonitor.getInstance(context).getState().isWifi();
     }
 
     /**
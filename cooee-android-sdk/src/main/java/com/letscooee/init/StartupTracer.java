@@ -0,0 +1,89 @@
+package com.letscooee.init;
+
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+import com.letscooee.BuildConfig;
+import com.letscooee.utils.Constants;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures the phases of the SDK startup. Every phase is also an {@link Trace} section (with the phase name) so
+ * that it can be seen in a system trace or measured by a macrobenchmark.
+ * <p>
+ * Only the first run of a phase is recorded as the later ones (if any) are not part of the app launch.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class StartupTracer {
+
+    public static final String PHASE_BOOTSTRAP = "Cooee.bootstrap";
+    public static final String PHASE_FACTORY_INIT = "Cooee.factoryInit";
+    public static final String PHASE_ASYNC_TASKS = "Cooee.asyncTasks";
+    public static final String PHASE_WARM_UP = "Cooee.warmUp";
+    public static final String PHASE_FIRST_SESSION = "Cooee.firstSession";
+
+    private static final Map<String, Double> durations = new LinkedHashMap<>();
+
+    private StartupTracer() {
+    }
+
+    /**
+     * Start a phase on the current thread. Every call must be followed by {@link #end(String, long)} on the same
+     * thread (use a <code>try/finally</code>).
+     *
+     * @param phase Name of the phase.
+     * @return The start time to be passed to {@link #end(String, long)}.
+     */
+    public static long begin(String phase) {
+        Trace.beginSection(phase);
+        return SystemClock.elapsedRealtimeNanos();
+    }
+
+    /**
+     * End the phase started by {@link #begin(String)} and record its duration.
+     *
+     * @param phase     Name of the phase.
+     * @param startTime The value returned by {@link #begin(String)}.
+     */
+    public static void end(String phase, long startTime) {
+        double duration = (SystemClock.elapsedRealtimeNanos() - startTime) / 1_000_000.0;
+        Trace.endSection();
+
+        synchronized (durations) {
+            if (durations.containsKey(phase)) {
+                return;
+            }
+
+            durations.put(phase, duration);
+        }
+
+        if (BuildConfig.DEBUG) {
+            Log.d(Constants.TAG, String.format("%s took %.2fms", phase, duration));
+        }
+    }
+
+    /**
+     * @return Durations (in milliseconds) of the phases recorded so far in the order they ended.
+     */
+    public static Map<String, Double> getDurations() {
+        synchronized (durations) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(durations));
+        }
+    }
+
+    @VisibleForTesting
+    static void reset() {
+        synchronized (durations) {
+            durations.clear();
+        }
+    }
+}
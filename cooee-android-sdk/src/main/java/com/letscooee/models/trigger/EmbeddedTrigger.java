@@ -39,6 +39,10 @@ public class EmbeddedTrigger {
         return engagementID;
     }
 
+    public Long getExpireAt() {
+        return expireAt;
+    }
+
     public void setExpired(Boolean expired) {
         this.expired = expired;
     }
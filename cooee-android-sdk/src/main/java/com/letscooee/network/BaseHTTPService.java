@@ -1,15 +1,18 @@
 package com.letscooee.network;
 
 import android.content.Context;
+import android.text.TextUtils;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 
 import com.letscooee.ContextAware;
+import com.letscooee.CooeeFactory;
 import com.letscooee.exceptions.HttpRequestFailedException;
 import com.letscooee.models.Event;
 import com.letscooee.retrofit.APIClient;
 import com.letscooee.retrofit.APIService;
+import com.letscooee.retrofit.DeviceAuthService;
 import com.letscooee.retrofit.external.ExternalApiClient;
 import com.letscooee.retrofit.external.ExternalApiService;
 import com.letscooee.retrofit.internal.PublicApiClient;
@@ -18,6 +21,8 @@ import com.letscooee.trigger.EngagementTriggerHelper;
 import com.letscooee.utils.Constants;
 
 import java.io.IOException;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 import okhttp3.MultipartBody;
@@ -48,7 +53,25 @@ public class BaseHTTPService extends ContextAware {
 
     public Map<String, Object> sendEvent(Event event) throws HttpRequestFailedException {
         Call<Map<String, Object>> call = apiService.sendEvent(event);
-        Response<?> response = this.executeHTTPCall(call, "Send " + event);
+        Response<?> response = this.executeAuthenticatedCall(call, "Send " + event);
+
+        Map<String, Object> responseData = (Map<String, Object>) response.body();
+
+        new EngagementTriggerHelper(context).renderInAppTriggerFromResponse(responseData);
+
+        return responseData;
+    }
+
+    /**
+     * Send multiple events to the server in a single bulk request.
+     *
+     * @param events The events to send.
+     * @return The response data from the server.
+     * @throws HttpRequestFailedException if HTTP request fails because of any reason.
+     */
+    public Map<String, Object> sendEvents(List<Event> events) throws HttpRequestFailedException {
+        Call<Map<String, Object>> call = apiService.sendEvents(events);
+        Response<?> response = this.executeAuthenticatedCall(call, "Send " + events.size() + " events");
 
         Map<String, Object> responseData = (Map<String, Object>) response.body();
 
@@ -59,14 +82,14 @@ public class BaseHTTPService extends ContextAware {
 
     public Map<String, Object> getIANTrigger(String triggerId) throws HttpRequestFailedException {
         Call<Map<String, Object>> call = apiService.loadTriggerDetails(triggerId);
-        Response<?> response = this.executeHTTPCall(call, "Get trigger In-App data");
+        Response<?> response = this.executeAuthenticatedCall(call, "Get trigger In-App data");
 
         return (Map<String, Object>) response.body();
     }
 
     public Map<String, Object> updateUserProfile(Map<String, Object> data) throws HttpRequestFailedException {
         Call<Map<String, Object>> call = apiService.updateProfile(data);
-        Response<?> response = this.executeHTTPCall(call, "Update user profile");
+        Response<?> response = this.executeAuthenticatedCall(call, "Update user profile");
 
         //noinspection unchecked
         return (Map<String, Object>) response.body();
@@ -74,7 +97,7 @@ public class BaseHTTPService extends ContextAware {
 
     public Map<String, Object> updateDeviceProperty(Map<String, Object> data) throws HttpRequestFailedException {
         Call<Map<String, Object>> call = apiService.updateDeviceProperty(data);
-        Response<?> response = this.executeHTTPCall(call, "Update device property");
+        Response<?> response = this.executeAuthenticatedCall(call, "Update device property");
 
         //noinspection unchecked
         return (Map<String, Object>) response.body();
@@ -82,7 +105,7 @@ public class BaseHTTPService extends ContextAware {
 
     public void updatePushToken(Map<String, Object> data) throws HttpRequestFailedException {
         Call<ResponseBody> call = apiService.setPushToken(data);
-        Response<?> response = this.executeHTTPCall(call, "Update user profile");
+        Response<?> response = this.executeAuthenticatedCall(call, "Update user profile");
 
         // TODO: 03/06/21 should we close ResponseBody.close()
         // https://square.github.io/okhttp/4.x/okhttp/okhttp3/-response-body/#the-response-body-can-be-consumed-only-once
@@ -90,7 +113,7 @@ public class BaseHTTPService extends ContextAware {
 
     public void sendSessionConcludedEvent(Map<String, Object> data) throws HttpRequestFailedException {
         Call<ResponseBody> call = apiService.concludeSession(data);
-        Response<?> response = this.executeHTTPCall(call, "Conclude Session");
+        Response<?> response = this.executeAuthenticatedCall(call, "Conclude Session");
 
         // TODO: 03/06/21 should we close ResponseBody.close()
         // https://square.github.io/okhttp/4.x/okhttp/okhttp3/-response-body/#the-response-body-can-be-consumed-only-once
@@ -125,10 +148,23 @@ public class BaseHTTPService extends ContextAware {
     public Map<String, Object> uploadScreenshot(MultipartBody.Part body, RequestBody parameter)
             throws HttpRequestFailedException {
         Call<Map<String, Object>> call = apiService.uploadScreenshot(body, parameter);
-        Response<?> response = this.executeHTTPCall(call, "Upload Request");
+        Response<?> response = this.executeAuthenticatedCall(call, "Upload Request");
         return (Map<String, Object>) response.body();
     }
 
+    /**
+     * Same as {@link #executeHTTPCall(Call, String)} for the APIs which need the SDK token. Waits for the token
+     * (if being acquired) so that the call is not made without it.
+     */
+    private Response<?> executeAuthenticatedCall(Call<?> call, String message) throws HttpRequestFailedException {
+        if (!CooeeFactory.getDeviceAuthService().awaitToken(DeviceAuthService.TOKEN_WAIT_TIMEOUT_MILLIS)) {
+            // Same as the server rejecting the call without a token
+            throw new HttpRequestFailedException("No SDK token for " + message, 401, null);
+        }
+
+        return this.executeHTTPCall(call, message);
+    }
+
     private Response<?> executeHTTPCall(Call<?> call, String message) throws HttpRequestFailedException {
         try {
             Response<?> response = call.execute();
@@ -140,11 +176,43 @@ public class BaseHTTPService extends ContextAware {
             Log.d(Constants.TAG, "Server failure for " + message + ", resp code: " + response.code()
                     + ", resp: " + response.body());
 
-            throw new HttpRequestFailedException("Error on " + message, response.code(), response.body());
+            throw new HttpRequestFailedException("Error on " + message, response.code(), response.body(),
+                    this.getRetryAfterMillis(response));
 
         } catch (IOException e) {
             Log.e(Constants.TAG, "Exception in HTTP " + message, e);
             throw new HttpRequestFailedException("Exception in HTTP " + message, e);
         }
     }
+
+    /**
+     * Read the <code>Retry-After</code> header (either in seconds or as a HTTP date) from a
+     * <code>429 Too Many Requests</code> or <code>503 Service Unavailable</code> response.
+     *
+     * @param response The failed response.
+     * @return The delay in milliseconds or 0 if the header is not available.
+     */
+    private long getRetryAfterMillis(Response<?> response) {
+        if (response.code() != 429 && response.code() != 503) {
+            return 0;
+        }
+
+        String retryAfter = response.headers().get("Retry-After");
+        if (TextUtils.isEmpty(retryAfter)) {
+            return 0;
+        }
+
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException ignored) {
+            // Not in seconds, try the HTTP date format
+        }
+
+        Date retryAt = response.headers().getDate("Retry-After");
+        if (retryAt == null) {
+            return 0;
+        }
+
+        return Math.max(0, retryAt.getTime() - new Date().getTime());
+    }
 }
@@ -1,8 +1,6 @@
 package com.letscooee.network;
 
 import android.content.Context;
-import android.net.ConnectivityManager;
-import android.net.NetworkInfo;
 
 /**
  * Checks for the internet availability.
@@ -13,14 +11,13 @@ import android.net.NetworkInfo;
 public class ConnectionManager {
 
     /**
-     * This will used to check if device is connected to internet and will return result in boolean
+     * This will used to check if device is connected to internet and will return result in boolean. The state is
+     * kept in memory by {@link ConnectivityMonitor}.
      *
      * @param context will be the application context
      * @return true or false
      */
     public static boolean isNetworkAvailable(Context context) {
-        ConnectivityManager connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
-        NetworkInfo activeNetworkInfo = connectivityManager.getActiveNetworkInfo();
-        return activeNetworkInfo != null && activeNetworkInfo.isConnected();
+        return ConnectivityMonitor.getInstance(context).isConnected();
     }
 }
@@ -0,0 +1,172 @@
+package com.letscooee.network;
+
+import android.net.ConnectivityManager;
+import android.net.NetworkCapabilities;
+import android.net.NetworkInfo;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Immutable snapshot of the default network of the device as seen by {@link ConnectivityMonitor}.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class ConnectionState {
+
+    public static final String TRANSPORT_NONE = "none";
+    public static final String TRANSPORT_WIFI = "wifi";
+    public static final String TRANSPORT_CELLULAR = "cellular";
+    public static final String TRANSPORT_ETHERNET = "ethernet";
+    public static final String TRANSPORT_VPN = "vpn";
+    public static final String TRANSPORT_OTHER = "other";
+
+    public static final ConnectionState DISCONNECTED = new ConnectionState(false, false, TRANSPORT_NONE, false,
+            0, 0);
+
+    private final boolean connected;
+    private final boolean metered;
+    private final String transport;
+    private final boolean vpn;
+    private final int downstreamKbps;
+    private final int upstreamKbps;
+
+    ConnectionState(boolean connected, boolean metered, String transport, boolean vpn, int downstreamKbps,
+                    int upstreamKbps) {
+        this.connected = connected;
+        this.metered = metered;
+        this.transport = transport;
+        this.vpn = vpn;
+        this.downstreamKbps = downstreamKbps;
+        this.upstreamKbps = upstreamKbps;
+    }
+
+    static ConnectionState from(@NonNull NetworkCapabilities capabilities) {
+        if (!capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)) {
+            return DISCONNECTED;
+        }
+
+        // A VPN network also carries the transport of the network beneath it, which is the one recorded
+        boolean vpn = capabilities.hasTransport(NetworkCapabilities.TRANSPORT_VPN);
+
+        String transport;
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)) {
+            transport = TRANSPORT_WIFI;
+        } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
+            transport = TRANSPORT_CELLULAR;
+        } else if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) {
+            transport = TRANSPORT_ETHERNET;
+        } else if (vpn) {
+            transport = TRANSPORT_VPN;
+        } else {
+            transport = TRANSPORT_OTHER;
+        }
+
+        boolean metered = !capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+        if (vpn && metered && (TRANSPORT_WIFI.equals(transport) || TRANSPORT_ETHERNET.equals(transport))) {
+            // Before Android 10, a VPN is reported as metered whatever the network beneath it
+            metered = false;
+        }
+
+        return new ConnectionState(
+                true,
+                metered,
+                transport,
+                vpn,
+                capabilities.getLinkDownstreamBandwidthKbps(),
+                capabilities.getLinkUpstreamBandwidthKbps());
+    }
+
+    /**
+     * Only for Android 5 where the capabilities of the active network can not be read.
+     */
+    @SuppressWarnings("deprecation")
+    static ConnectionState from(NetworkInfo networkInfo, boolean metered) {
+        if (networkInfo == null || !networkInfo.isConnected()) {
+            return DISCONNECTED;
+        }
+
+        String transport;
+        switch (networkInfo.getType()) {
+            case ConnectivityManager.TYPE_WIFI:
+                transport = TRANSPORT_WIFI;
+                break;
+            case ConnectivityManager.TYPE_MOBILE:
+                transport = TRANSPORT_CELLULAR;
+                break;
+            case ConnectivityManager.TYPE_ETHERNET:
+                transport = TRANSPORT_ETHERNET;
+                break;
+            case ConnectivityManager.TYPE_VPN:
+                transport = TRANSPORT_VPN;
+                break;
+            default:
+                transport = TRANSPORT_OTHER;
+        }
+
+        return new ConnectionState(true, metered, transport, TRANSPORT_VPN.equals(transport), 0, 0);
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * @return <code>true</code> if the user may be charged for the data (like cellular) and the large uploads
+     * should be avoided.
+     */
+    public boolean isMetered() {
+        return metered;
+    }
+
+    /**
+     * @return <code>true</code> if connected over an unmetered network.
+     */
+    public boolean isUnmetered() {
+        return connected && !metered;
+    }
+
+    /**
+     * @return One of the <code>TRANSPORT_*</code> constants. For a VPN, the transport of the network beneath it
+     * (if known), see {@link #isVpn()}.
+     */
+    public String getTransport() {
+        return transport;
+    }
+
+    public boolean isWifi() {
+        return TRANSPORT_WIFI.equals(transport);
+    }
+
+    public boolean isVpn() {
+        return vpn;
+    }
+
+    /**
+     * @return Estimated downstream bandwidth in Kbps or 0 if unknown.
+     */
+    public int getDownstreamKbps() {
+        return downstreamKbps;
+    }
+
+    /**
+     * @return Estimated upstream bandwidth in Kbps or 0 if unknown.
+     */
+    public int getUpstreamKbps() {
+        return upstreamKbps;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "ConnectionState{" +
+                "connected=" + connected +
+                ", metered=" + metered +
+                ", transport='" + transport + '\'' +
+                ", vpn=" + vpn +
+                ", downstreamKbps=" + downstreamKbps +
+                ", upstreamKbps=" + upstreamKbps +
+                '}';
+    }
+}
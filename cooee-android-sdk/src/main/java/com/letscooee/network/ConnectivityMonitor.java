@@ -0,0 +1,161 @@
+package com.letscooee.network;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+import com.letscooee.schedular.SyncScheduler;
+import com.letscooee.utils.Constants;
+
+/**
+ * Keeps the state of the default network (see {@link ConnectionState}) in memory by listening to the
+ * {@link ConnectivityManager.NetworkCallback} so that the state can be checked any number of times without
+ * calling the system service. When the device gets back online, the pending tasks are synced right away.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class ConnectivityMonitor {
+
+    /**
+     * Minimum gap between two syncs triggered by reconnection so that a flapping network does not flood.
+     */
+    private static final long MIN_RECONNECT_SYNC_INTERVAL_MILLIS = 30 * 1000;
+
+    private static volatile ConnectivityMonitor instance;
+
+    private final Context context;
+    private final ConnectivityManager connectivityManager;
+
+    private volatile ConnectionState state;
+    private long lastReconnectSyncAt;
+
+    @VisibleForTesting
+    ConnectivityMonitor(Context context) {
+        this.context = context.getApplicationContext();
+        this.connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        this.state = this.readCurrentState();
+    }
+
+    public static ConnectivityMonitor getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ConnectivityMonitor.class) {
+                if (instance == null) {
+                    // Published only once registered
+                    ConnectivityMonitor monitor = new ConnectivityMonitor(context);
+                    monitor.register();
+                    instance = monitor;
+                }
+            }
+        }
+
+        return instance;
+    }
+
+    private void register() {
+        ConnectivityManager.NetworkCallback callback = new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(@NonNull Network network) {
+                // Android 8+ always follows with onCapabilitiesChanged
+                if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+                    update(readCurrentState());
+                }
+            }
+
+            @Override
+            public void onCapabilitiesChanged(@NonNull Network network, @NonNull NetworkCapabilities capabilities) {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                    update(ConnectionState.from(capabilities));
+                } else {
+                    // Not necessarily the default network, check the active one
+                    update(readCurrentState());
+                }
+            }
+
+            @Override
+            public void onLost(@NonNull Network network) {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                    update(ConnectionState.DISCONNECTED);
+                } else {
+                    update(readCurrentState());
+                }
+            }
+        };
+
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                connectivityManager.registerDefaultNetworkCallback(callback);
+            } else {
+                NetworkRequest request = new NetworkRequest.Builder()
+                        .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                        .build();
+                connectivityManager.registerNetworkCallback(request, callback);
+            }
+        } catch (RuntimeException e) {
+            // Thrown when the app has registered too many callbacks. Falls back to the state read once
+            Log.e(Constants.TAG, "Unable to listen to the network changes", e);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private ConnectionState readCurrentState() {
+        if (connectivityManager == null) {
+            return ConnectionState.DISCONNECTED;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            Network network = connectivityManager.getActiveNetwork();
+            NetworkCapabilities capabilities = network == null ? null
+                    : connectivityManager.getNetworkCapabilities(network);
+
+            return capabilities == null ? ConnectionState.DISCONNECTED : ConnectionState.from(capabilities);
+        }
+
+        return ConnectionState.from(connectivityManager.getActiveNetworkInfo(),
+                connectivityManager.isActiveNetworkMetered());
+    }
+
+    @VisibleForTesting
+    synchronized void update(ConnectionState newState) {
+        ConnectionState oldState = this.state;
+        this.state = newState;
+
+        if (oldState.isConnected() == newState.isConnected() && oldState.isMetered() == newState.isMetered()) {
+            return;
+        }
+
+        Log.d(Constants.TAG, "Network changed: " + newState);
+
+        if (!oldState.isConnected() && newState.isConnected()) {
+            this.onReconnected();
+        }
+    }
+
+    private void onReconnected() {
+        long now = SystemClock.elapsedRealtime();
+        if (lastReconnectSyncAt != 0 && now - lastReconnectSyncAt < MIN_RECONNECT_SYNC_INTERVAL_MILLIS) {
+            return;
+        }
+
+        lastReconnectSyncAt = now;
+        SyncScheduler.syncNow(context);
+    }
+
+    @NonNull
+    public ConnectionState getState() {
+        return state;
+    }
+
+    public boolean isConnected() {
+        return state.isConnected();
+    }
+}
@@ -3,22 +3,19 @@ package com.letscooee.network;
 import android.content.Context;
 import com.letscooee.ContextAware;
 import com.letscooee.models.Event;
-import com.letscooee.models.trigger.EmbeddedTrigger;
 import com.letscooee.room.task.PendingTask;
 import com.letscooee.room.task.PendingTaskService;
 import com.letscooee.room.task.PendingTaskType;
 import com.letscooee.task.CooeeExecutors;
-import com.letscooee.trigger.EngagementTriggerHelper;
+import com.letscooee.trigger.ActiveTriggerStore;
 import com.letscooee.user.SessionManager;
-import com.letscooee.utils.Constants;
-import com.letscooee.utils.LocalStorageHelper;
 import com.letscooee.utils.RuntimeData;
 
 import java.util.Map;
 
 /**
  * A safe HTTP service which saves the data in {@link com.letscooee.room.CooeeDatabase} before attempting
- * via {@link BaseHTTPService}. If the network call fails because of any reason, the {@link com.letscooee.schedular.job.PendingTaskJob}
+ * via {@link BaseHTTPService}. If the network call fails because of any reason, the {@link com.letscooee.schedular.worker.PendingTaskWorker}
  * will reattempt sending the data to the API.
  *
  * @author Shashank Agrawal
@@ -60,7 +57,7 @@ public class SafeHTTPService extends ContextAware {
 
     private void sendEvent(Event event, boolean useSession) {
         String sessionID = sessionManager.getCurrentSessionID(useSession);
-        EmbeddedTrigger trigger = LocalStorageHelper.getEmbeddedTrigger(context, Constants.STORAGE_ACTIVE_TRIGGER, null);
+        ActiveTriggerStore activeTriggerStore = ActiveTriggerStore.getInstance(context);
 
         if (useSession) {
             event.setSessionID(sessionID);
@@ -68,42 +65,49 @@ public class SafeHTTPService extends ContextAware {
         }
 
         event.setScreenName(runtimeData.getCurrentScreenName());
-        event.setActiveTriggers(EngagementTriggerHelper.getActiveTriggers(context));
-        event.setActiveTrigger(trigger);
+        event.setActiveTriggers(activeTriggerStore.getActivatedTriggers());
+        event.setActiveTrigger(activeTriggerStore.getActiveTrigger());
 
-        PendingTask pendingTask = pendingTaskService.newTask(event);
-        this.attemptTaskImmediately(pendingTask);
+        pendingTaskService.newTaskAsync(event, this::attemptTaskImmediately);
     }
 
     public void updateUserProfile(Map<String, Object> requestData) {
         requestData.put("sessionID", sessionManager.getCurrentSessionID());
-        PendingTask pendingTask = pendingTaskService.newTask(requestData, PendingTaskType.API_UPDATE_PROFILE);
-        this.attemptTaskImmediately(pendingTask);
+        pendingTaskService.newTaskAsync(requestData, PendingTaskType.API_UPDATE_PROFILE,
+                this::attemptTaskImmediately);
     }
 
     public void updateDeviceProperty(Map<String, Object> requestData) {
         requestData.put("sessionID", sessionManager.getCurrentSessionID());
-        PendingTask pendingTask = pendingTaskService.newTask(requestData, PendingTaskType.API_DEVICE_PROPERTY);
-        this.attemptTaskImmediately(pendingTask);
+        pendingTaskService.newTaskAsync(requestData, PendingTaskType.API_DEVICE_PROPERTY,
+                this::attemptTaskImmediately);
     }
 
     public void sendSessionConcludedEvent(Map<String, Object> requestData) {
-        PendingTask pendingTask = pendingTaskService.newTask(requestData, PendingTaskType.API_SESSION_CONCLUDE);
-        this.attemptTaskImmediately(pendingTask);
+        pendingTaskService.newTaskAsync(requestData, PendingTaskType.API_SESSION_CONCLUDE,
+                this::attemptTaskImmediately);
     }
 
     public void updatePushToken(Map<String, Object> requestData) {
-        PendingTask pendingTask = pendingTaskService.newTask(requestData, PendingTaskType.API_UPDATE_PUSH_TOKEN);
-        this.attemptTaskImmediately(pendingTask);
+        pendingTaskService.newTaskAsync(requestData, PendingTaskType.API_UPDATE_PUSH_TOKEN,
+                this::attemptTaskImmediately);
     }
 
     /**
-     * Executes the newly created {@code pendingTask} immediately. This newly task will be processed in a new
+     * Executes the newly stored {@code pendingTask} immediately. This newly task will be processed in a new
      * thread (outside the main thread) as the network calls are synchronous in {@link BaseHTTPService}.
+     * The tasks are stored in background via {@link PendingTaskService#newTaskAsync} so this is invoked
+     * on the database writer thread.
+     * If event batching is enabled, the event tasks are queued to be sent in bulk instead.
      *
      * @param pendingTask Task to attempt execution.
      */
     private void attemptTaskImmediately(PendingTask pendingTask) {
+        if (pendingTask.type == PendingTaskType.API_SEND_EVENT && pendingTaskService.isEventBatchingEnabled()) {
+            pendingTaskService.queueForBatch(pendingTask);
+            return;
+        }
+
         CooeeExecutors.getInstance().networkExecutor().execute(() -> pendingTaskService.processTask(pendingTask));
     }
 }
@@ -1,7 +1,6 @@
 package com.letscooee.retrofit;
 
 import android.text.TextUtils;
-import android.util.Log;
 
 import androidx.annotation.RestrictTo;
 
@@ -11,17 +10,16 @@ import com.letscooee.BuildConfig;
 import com.letscooee.CooeeFactory;
 import com.letscooee.utils.GsonDateAdapter;
 
+import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
+import okhttp3.Protocol;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
-import java.net.URLEncoder;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
-import static com.letscooee.utils.Constants.TAG;
-
 /**
  * The APIClient class will help in sending request to server
  *
@@ -32,7 +30,20 @@ import static com.letscooee.utils.Constants.TAG;
 public class APIClient {
 
     private static final String BASE_URL = BuildConfig.SERVER_URL;
+
+    /**
+     * The SDK talks to very few hosts so a small pool is enough. Idle connections are kept warm for five minutes
+     * so that the bursts of calls (events, profile, session) reuse the same connection and TLS session.
+     */
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_DURATION_MINUTES = 5;
+
+    private static OkHttpClient sharedHttpClient = null;
     private static Retrofit retrofit = null;
+    private static APIService apiService = null;
+    private static SDKHeaderInterceptor headerInterceptor = null;
+    private static TokenAuthenticator tokenAuthenticator = null;
+    private static TokenRefresher tokenRefresher = null;
 
     private static String apiToken;
     private static String userId = "";
@@ -40,76 +51,110 @@ public class APIClient {
     private static String wrapperName = "";
     private static Gson gson = new GsonBuilder().registerTypeAdapter(Date.class, new GsonDateAdapter()).create();
 
-    public static APIService getAPIService() {
-        Retrofit retrofit = getClient();
-        return retrofit.create(APIService.class);
+    public static synchronized APIService getAPIService() {
+        if (apiService == null) {
+            apiService = getClient().create(APIService.class);
+        }
+
+        return apiService;
     }
 
-    private static Retrofit getClient() {
-        String deviceName = CooeeFactory.getDeviceInfo().getDeviceName();
-        boolean isAppDebuggable = CooeeFactory.getAppInfo().isDebuggable();
+    /**
+     * Single {@link OkHttpClient} shared by every HTTP call of the SDK. Clients for other APIs must be derived from
+     * it via {@link OkHttpClient#newBuilder()} so that they share the connection pool, dispatcher threads and
+     * TLS sessions instead of creating their own.
+     *
+     * @return the shared HTTP client without any Cooee specific interceptors.
+     */
+    public static synchronized OkHttpClient getSharedHttpClient() {
+        if (sharedHttpClient != null) {
+            return sharedHttpClient;
+        }
 
-        OkHttpClient okHttpClient = new OkHttpClient.Builder()
+        sharedHttpClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_DURATION_MINUTES, TimeUnit.MINUTES))
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .retryOnConnectionFailure(true)
                 .connectTimeout(60, TimeUnit.SECONDS)
                 .readTimeout(60, TimeUnit.SECONDS)
-                .addInterceptor(chain -> {
-                    Request.Builder requestBuilder = chain.request()
-                            .newBuilder()
-                            .addHeader("Content-Type", "application/json");
-
-                    boolean isPublicAPI = chain.request().url().toString().endsWith("/v1/device/validate");
+                .build();
 
-                    if (!isPublicAPI && apiToken != null) {
-                        requestBuilder.addHeader("x-sdk-token", apiToken);
-                    }
+        return sharedHttpClient;
+    }
 
-                    if (!isPublicAPI && userId != null) {
-                        requestBuilder.addHeader("user-id", userId);
-                    }
+    private static synchronized Retrofit getClient() {
+        if (retrofit != null) {
+            return retrofit;
+        }
 
-                    if (BuildConfig.DEBUG) {
-                        requestBuilder.addHeader("sdk-debug", "1");
-                    }
+        String deviceName = CooeeFactory.getDeviceInfo().getDeviceName();
+        boolean isAppDebuggable = CooeeFactory.getAppInfo().isDebuggable();
 
-                    if (isAppDebuggable) {
-                        requestBuilder.addHeader("app-debug", "1");
-                    }
+        headerInterceptor = new SDKHeaderInterceptor(deviceName, isAppDebuggable);
+        updateHeaders();
 
-                    requestBuilder.addHeader("device-name", URLEncoder.encode(deviceName, "UTF-8"));
-                    requestBuilder.addHeader("sdk-version", BuildConfig.VERSION_NAME);
-                    requestBuilder.addHeader("sdk-version-code", String.valueOf(BuildConfig.VERSION_CODE));
-                    requestBuilder.addHeader("app-version", appVersion);
+        tokenAuthenticator = new TokenAuthenticator(headerInterceptor);
+        tokenAuthenticator.setTokenRefresher(tokenRefresher);
 
-                    if (!TextUtils.isEmpty(wrapperName)) {
-                        requestBuilder.addHeader("sdk-wrapper", wrapperName);
-                    }
+        OkHttpClient okHttpClient = getSharedHttpClient().newBuilder()
+                .addInterceptor(headerInterceptor)
+                .authenticator(tokenAuthenticator)
+                .addInterceptor(new GzipRequestInterceptor())
+                .build();
 
-                    Log.d(TAG, "Request: " + requestBuilder.build().toString());
-                    return chain.proceed(requestBuilder.build());
-                })
+        retrofit = new Retrofit.Builder()
+                .baseUrl(BASE_URL)
+                .addConverterFactory(GsonConverterFactory.create(gson))
+                .client(okHttpClient)
                 .build();
 
-        if (retrofit == null) {
-            retrofit = new Retrofit.Builder()
-                    .baseUrl(BASE_URL)
-                    .addConverterFactory(GsonConverterFactory.create(gson))
-                    .client(okHttpClient)
-                    .build();
+        return retrofit;
+    }
+
+    /**
+     * Any successful authenticated request also tells the server that the session is alive. This is used to
+     * skip the redundant keep-alive pings.
+     *
+     * @return {@link android.os.SystemClock#elapsedRealtime()} of the last successful authenticated request or 0
+     * if there is none yet.
+     */
+    public static long getLastAuthenticatedRequestTime() {
+        return SDKHeaderInterceptor.getLastAuthenticatedSuccessAt();
+    }
+
+    private static synchronized void updateHeaders() {
+        if (headerInterceptor != null) {
+            headerInterceptor.update(apiToken, userId, appVersion, wrapperName);
         }
+    }
 
-        return retrofit;
+    /**
+     * Set who acquires a new SDK token when the server responds with <code>401 Unauthorized</code>. The rejected
+     * requests are replayed once with the new token.
+     *
+     * @param refresher the token refresher.
+     */
+    public static synchronized void setTokenRefresher(TokenRefresher refresher) {
+        tokenRefresher = refresher;
+
+        if (tokenAuthenticator != null) {
+            tokenAuthenticator.setTokenRefresher(refresher);
+        }
     }
 
     public static void setAPIToken(String token) {
         apiToken = TextUtils.isEmpty(token) ? "" : token;
+        updateHeaders();
     }
 
     public static void setUserId(String id) {
         userId = TextUtils.isEmpty(id) ? "" : id;
+        updateHeaders();
     }
 
     public static void setAppVersion(String version) {
         appVersion = TextUtils.isEmpty(version) ? "" : version;
+        updateHeaders();
     }
 
     /**
@@ -122,5 +167,6 @@ public class APIClient {
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     public static void setWrapperName(String name) {
         wrapperName = name;
+        updateHeaders();
     }
 }
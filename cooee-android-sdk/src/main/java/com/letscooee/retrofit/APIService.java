@@ -16,6 +16,7 @@ import retrofit2.http.PUT;
 import retrofit2.http.Part;
 import retrofit2.http.Path;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -32,6 +33,9 @@ public interface APIService {
     @POST("/v1/event/track")
     Call<Map<String, Object>> sendEvent(@Body Event event);
 
+    @POST("/v1/event/bulk")
+    Call<Map<String, Object>> sendEvents(@Body List<Event> events);
+
     @POST("/v1/session/conclude")
     Call<ResponseBody> concludeSession(@Body Map<String, Object> sessionConcludeRequest);
 
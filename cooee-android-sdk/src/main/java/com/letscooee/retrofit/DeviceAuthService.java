@@ -1,28 +1,35 @@
 package com.letscooee.retrofit;
 
 import android.content.Context;
+import android.os.Looper;
 import android.text.TextUtils;
 import android.util.Log;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
 import com.letscooee.BuildConfig;
 import com.letscooee.CooeeFactory;
 import com.letscooee.models.AuthenticationRequestBody;
 import com.letscooee.models.DeviceAuthResponse;
-import com.letscooee.schedular.CooeeJobUtils;
 import com.letscooee.screenshot.ScreenshotUtility;
+import com.letscooee.task.CooeeExecutors;
 import com.letscooee.user.NewSessionExecutor;
+import com.letscooee.utils.Closure;
 import com.letscooee.utils.Constants;
 import com.letscooee.utils.LocalStorageHelper;
 import com.letscooee.utils.ManifestReader;
 import com.letscooee.utils.SentryHelper;
 import org.bson.types.ObjectId;
-import retrofit2.Call;
-import retrofit2.Callback;
 import retrofit2.Response;
 
+import java.io.IOException;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utility class to register user with server and to provide related data
@@ -33,30 +40,117 @@ import java.util.Date;
 @RestrictTo(RestrictTo.Scope.LIBRARY)
 public class DeviceAuthService {
 
+    /**
+     * Maximum time the API calls wait for the token acquired by another thread.
+     */
+    public static final long TOKEN_WAIT_TIMEOUT_MILLIS = 10 * 1000;
+
     private final Context context;
     private final SentryHelper sentryHelper;
     private final APIService apiService;
-    private final NewSessionExecutor sessionExecutor;
     private final ManifestReader manifestReader;
 
-    private String sdkToken;
+    /**
+     * Kept in memory so that the token can be checked for every API call without reading the preferences.
+     */
+    private volatile String sdkToken;
     private String userID;
     private String deviceID;
     private String uuid;
 
+    private final Object tokenLock = new Object();
+
+    /**
+     * The in-flight attempt to acquire the token or <code>null</code> if there is none.
+     */
+    private CountDownLatch tokenRequest;
+
+    /**
+     * The last rejected token for which a new token was requested without waiting for the 1 minute limit.
+     */
+    private String rateLimitBypassedFor;
+
+    private final List<TokenStateSubscription> tokenStateListeners = new CopyOnWriteArrayList<>();
+
     public DeviceAuthService(Context context, SentryHelper sentryHelper, ManifestReader manifestReader) {
+        this(context, sentryHelper, manifestReader, APIClient.getAPIService());
+    }
+
+    @VisibleForTesting
+    DeviceAuthService(Context context, SentryHelper sentryHelper, ManifestReader manifestReader, APIService apiService) {
         this.context = context.getApplicationContext();
-        this.apiService = APIClient.getAPIService();
+        this.apiService = apiService;
         this.sentryHelper = sentryHelper;
         this.manifestReader = manifestReader;
-        this.sessionExecutor = new NewSessionExecutor(this.context);
+
+        APIClient.setTokenRefresher(this::refreshToken);
     }
 
     public boolean hasToken() {
-        String sdkToken = LocalStorageHelper.getString(context, Constants.STORAGE_SDK_TOKEN, null);
         return !TextUtils.isEmpty(sdkToken);
     }
 
+    /**
+     * Observe the availability of the SDK token instead of polling {@link #hasToken()}. The listener is called
+     * right away with the current state and then on every change (on the thread which changed the token). The
+     * calls to a listener are never concurrent and the last call always has the current state, even if the token
+     * changes while the listener is being added.
+     *
+     * @param listener Called with <code>true</code> when the token is available and <code>false</code> when it
+     *                 is not.
+     */
+    public void addTokenStateListener(@NonNull Closure<Boolean> listener) {
+        TokenStateSubscription subscription = new TokenStateSubscription(listener);
+        tokenStateListeners.add(subscription);
+        this.deliverTokenState(subscription);
+    }
+
+    public void removeTokenStateListener(@NonNull Closure<Boolean> listener) {
+        for (TokenStateSubscription subscription : tokenStateListeners) {
+            if (subscription.listener == listener) {
+                tokenStateListeners.remove(subscription);
+            }
+        }
+    }
+
+    /**
+     * Single place to change the token so that the listeners are notified of every change.
+     */
+    private void setSDKToken(@Nullable String token) {
+        boolean hadToken = this.hasToken();
+        this.sdkToken = token;
+        boolean hasToken = this.hasToken();
+
+        if (hadToken == hasToken) {
+            return;
+        }
+
+        for (TokenStateSubscription subscription : tokenStateListeners) {
+            this.deliverTokenState(subscription);
+        }
+    }
+
+    /**
+     * Call the listener with the state read at the time of the call (and not the one at the time of the change),
+     * so that a change racing with another one or with the first call is never delivered out of order.
+     */
+    private void deliverTokenState(TokenStateSubscription subscription) {
+        synchronized (subscription) {
+            boolean hasToken = this.hasToken();
+            if (subscription.lastState != null && subscription.lastState == hasToken) {
+                return;
+            }
+
+            subscription.lastState = hasToken;
+
+            try {
+                subscription.listener.call(hasToken);
+            } catch (RuntimeException e) {
+                Log.e(Constants.TAG, "Error in the token state listener", e);
+            }
+        }
+    }
+
     public String getUserID() {
         return this.userID;
     }
@@ -66,7 +160,7 @@ public class DeviceAuthService {
      * and populates it for further use.
      */
     public void populateUserDataFromStorage() {
-        sdkToken = LocalStorageHelper.getString(context, Constants.STORAGE_SDK_TOKEN, null);
+        String sdkToken = LocalStorageHelper.getString(context, Constants.STORAGE_SDK_TOKEN, null);
         if (TextUtils.isEmpty(sdkToken)) {
             Log.d(Constants.TAG, "No SDK token found in preference");
         }
@@ -76,34 +170,135 @@ public class DeviceAuthService {
             Log.d(Constants.TAG, "No user ID found in preference");
         }
 
-        this.updateAPIClient();
+        this.updateAPIClient(sdkToken);
+        this.setSDKToken(sdkToken);
     }
 
     /**
      * Method will ensure that the SDK has acquired the token. If on the first time, token can't be pulled
      * from the server, calling this method will reattempt the same maximum within 1 minute.
+     * <p>
+     * The token is requested synchronously so this must not be called on the main thread.
+     */
+    public void acquireSDKToken() {
+        this.acquireToken(0, null);
+    }
+
+    /**
+     * Wait for the SDK token so that the authenticated API calls are not made without it. Only one attempt to
+     * acquire the token is made at a time (and not more than once in a minute), all the callers wait for the
+     * same attempt.
+     *
+     * @param timeoutMillis Maximum time to wait for an attempt made by another thread.
+     * @return <code>true</code> if the token is available.
      */
-    public synchronized void acquireSDKToken() {
+    public boolean awaitToken(long timeoutMillis) {
         if (this.hasToken()) {
-            return;
+            return true;
         }
 
-        Log.d(Constants.TAG, "Attempt to acquire SDK token");
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            // Never block the main thread, acquire in the background
+            CooeeExecutors.getInstance().singleThreadExecutor().execute(this::acquireSDKToken);
+            return false;
+        }
+
+        return this.acquireToken(timeoutMillis, null);
+    }
+
+    /**
+     * Acquire a new token in place of the one rejected by the server (with <code>401 Unauthorized</code>). The
+     * rejected token is kept till the new one arrives so that the SDK is never left without a token, the requests
+     * rejected together share the same attempt and the token is not replaced if it was already refreshed by another
+     * request. The first refresh of a rejected token is not subject to the 1 minute limit.
+     *
+     * @param rejectedToken The token sent with the rejected request.
+     * @return <code>true</code> if a new token is available.
+     */
+    public boolean refreshToken(@Nullable String rejectedToken) {
+        if (!TextUtils.isEmpty(rejectedToken) && TextUtils.equals(sdkToken, rejectedToken)) {
+            Log.w(Constants.TAG, "SDK token rejected by the server");
+        }
+
+        return this.acquireToken(TOKEN_WAIT_TIMEOUT_MILLIS, rejectedToken);
+    }
+
+    /**
+     * Single flight acquisition of the token. The first caller makes the request on its own thread and the others
+     * wait for it till the given timeout.
+     *
+     * @param rejectedToken The token which should be replaced or <code>null</code> if any token will do.
+     */
+    private boolean acquireToken(long timeoutMillis, @Nullable String rejectedToken) {
+        CountDownLatch request;
+        boolean isFirstCaller = false;
+
+        synchronized (tokenLock) {
+            if (this.hasUsableToken(rejectedToken)) {
+                return true;
+            }
+
+            if (tokenRequest == null) {
+                boolean canBypassRateLimit = !TextUtils.isEmpty(rejectedToken)
+                        && !TextUtils.equals(rejectedToken, rateLimitBypassedFor);
+
+                if (canBypassRateLimit) {
+                    rateLimitBypassedFor = rejectedToken;
+                } else if (!this.canAttemptToken()) {
+                    return false;
+                }
+
+                tokenRequest = new CountDownLatch(1);
+                isFirstCaller = true;
+            }
+
+            request = tokenRequest;
+        }
+
+        if (isFirstCaller) {
+            try {
+                this.getSDKTokenFromServer();
+            } finally {
+                synchronized (tokenLock) {
+                    tokenRequest = null;
+                }
+                request.countDown();
+            }
+
+            return this.hasUsableToken(rejectedToken);
+        }
+
+        try {
+            //noinspection ResultOfMethodCallIgnored
+            request.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return this.hasUsableToken(rejectedToken);
+    }
+
+    private boolean hasUsableToken(@Nullable String rejectedToken) {
+        String token = this.sdkToken;
+        return !TextUtils.isEmpty(token) && !TextUtils.equals(token, rejectedToken);
+    }
+
+    /**
+     * @return <code>false</code> if the last attempt to acquire the token was made within 1 minute.
+     */
+    private boolean canAttemptToken() {
         long lastCheckTime = LocalStorageHelper.getLong(context, Constants.STORAGE_LAST_TOKEN_ATTEMPT, 0);
 
         // We are attempting first time
         if (lastCheckTime == 0) {
-            this.getSDKTokenFromServer();
-        } else {
-            Calendar calender = Calendar.getInstance();
-            calender.setTimeInMillis(lastCheckTime);
-            calender.add(Calendar.MINUTE, 1);
-
-            // If the last attempt was
-            if (new Date().after(calender.getTime())) {
-                this.getSDKTokenFromServer();
-            }
+            return true;
         }
+
+        Calendar calender = Calendar.getInstance();
+        calender.setTimeInMillis(lastCheckTime);
+        calender.add(Calendar.MINUTE, 1);
+
+        return new Date().after(calender.getTime());
     }
 
     /**
@@ -117,44 +312,46 @@ public class DeviceAuthService {
             return;
         }
 
-        uuid = new ObjectId().toHexString();
+        Log.d(Constants.TAG, "Attempt to acquire SDK token");
+        LocalStorageHelper.putLong(context, Constants.STORAGE_LAST_TOKEN_ATTEMPT, new Date().getTime());
+
+        // Keep the same device on a refresh
+        uuid = LocalStorageHelper.getString(context, Constants.STORAGE_DEVICE_UUID, null);
+        if (TextUtils.isEmpty(uuid)) {
+            uuid = new ObjectId().toHexString();
+        }
+
         AuthenticationRequestBody requestBody = getAuthenticationRequestBody();
-        apiService.registerDevice(requestBody).enqueue(new Callback<DeviceAuthResponse>() {
-            @Override
-            public void onResponse(@NonNull Call<DeviceAuthResponse> call, @NonNull Response<DeviceAuthResponse> response) {
-                if (response.isSuccessful()) {
-                    assert response.body() != null;
-                    DeviceAuthService.this.saveDeviceDataInStorage(response.body());
-
-                    // Start the job immediately to make sure the pending tasks can be sent
-                    CooeeJobUtils.triggerPendingTaskJobImmediately(DeviceAuthService.this.context);
-                } else {
-                    DeviceAuthService.this.sentryHelper.captureMessage("Unable to acquire token- " + response.code());
-                }
-            }
 
-            @Override
-            public void onFailure(@NonNull Call<DeviceAuthResponse> call, @NonNull Throwable t) {
-                Log.e(Constants.TAG, "Unable to acquire token", t);
-            }
-        });
+        try {
+            Response<DeviceAuthResponse> response = apiService.registerDevice(requestBody).execute();
 
-        LocalStorageHelper.putLong(context, Constants.STORAGE_LAST_TOKEN_ATTEMPT, new Date().getTime());
+            if (response.isSuccessful() && response.body() != null) {
+                this.saveDeviceDataInStorage(response.body());
+            } else {
+                this.sentryHelper.captureMessage("Unable to acquire token- " + response.code());
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.e(Constants.TAG, "Unable to acquire token", e);
+        }
     }
 
     private void saveDeviceDataInStorage(DeviceAuthResponse deviceAuthResponse) {
-        this.sdkToken = deviceAuthResponse.getSdkToken();
+        String token = deviceAuthResponse.getSdkToken();
         this.userID = deviceAuthResponse.getId();
         this.deviceID = deviceAuthResponse.getDeviceID();
-        this.updateAPIClient();
 
-        LocalStorageHelper.putString(context, Constants.STORAGE_SDK_TOKEN, sdkToken);
-        LocalStorageHelper.putString(context, Constants.STORAGE_USER_ID, userID);
-        LocalStorageHelper.putString(context, Constants.STORAGE_DEVICE_ID, deviceID);
-        LocalStorageHelper.putString(context, Constants.STORAGE_DEVICE_UUID, uuid);
+        LocalStorageHelper.putStringAsync(context, Constants.STORAGE_SDK_TOKEN, token);
+        LocalStorageHelper.putStringAsync(context, Constants.STORAGE_USER_ID, userID);
+        LocalStorageHelper.putStringAsync(context, Constants.STORAGE_DEVICE_ID, deviceID);
+        LocalStorageHelper.putStringAsync(context, Constants.STORAGE_DEVICE_UUID, uuid);
+
+        // The API client gets the token before the listeners are notified
+        this.updateAPIClient(token);
+        this.setSDKToken(token);
     }
 
-    private void updateAPIClient() {
+    private void updateAPIClient(String sdkToken) {
         if (BuildConfig.DEBUG) {
             Log.i(Constants.TAG, "SDK Token: " + sdkToken);
             Log.i(Constants.TAG, "User ID: " + userID);
@@ -176,10 +373,22 @@ public class DeviceAuthService {
      * @return AuthenticationRequestBody
      */
     private AuthenticationRequestBody getAuthenticationRequestBody() {
+        // Created here (and not in the constructor) as it needs SafeHTTPService which ultimately depends on this
+        NewSessionExecutor sessionExecutor = new NewSessionExecutor(context);
 
         return new AuthenticationRequestBody(
                 manifestReader.getAppID(),
                 uuid,
                 sessionExecutor.getImmutableDeviceProps());
     }
+
+    private static class TokenStateSubscription {
+
+        private final Closure<Boolean> listener;
+        private Boolean lastState;
+
+        TokenStateSubscription(Closure<Boolean> listener) {
+            this.listener = listener;
+        }
+    }
 }
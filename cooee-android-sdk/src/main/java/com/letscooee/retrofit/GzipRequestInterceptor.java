@@ -0,0 +1,101 @@
+package com.letscooee.retrofit;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import com.letscooee.utils.Constants;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * An OkHttp interceptor which gzip compresses the JSON request bodies above {@link #MIN_COMPRESS_BYTES}.
+ * <p>
+ * Compression is negotiated: the backend opts in by sending the {@link #HEADER_ACCEPT_ENCODING} header with
+ * <code>gzip</code> in any response. Until then the bodies are sent uncompressed. The responses are already
+ * decompressed transparently by OkHttp.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class GzipRequestInterceptor implements Interceptor {
+
+    public static final String HEADER_ACCEPT_ENCODING = "x-sdk-accept-encoding";
+
+    /**
+     * Smaller bodies are sent as it is as the gzip overhead outweighs the savings.
+     */
+    static final long MIN_COMPRESS_BYTES = 1024;
+
+    private static volatile boolean serverAcceptsGzip = false;
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+
+        if (serverAcceptsGzip && shouldCompress(request)) {
+            request = request.newBuilder()
+                    .header("Content-Encoding", "gzip")
+                    .method(request.method(), gzip(request.body()))
+                    .build();
+        }
+
+        Response response = chain.proceed(request);
+
+        if (!serverAcceptsGzip) {
+            String acceptEncoding = response.header(HEADER_ACCEPT_ENCODING);
+            if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                Log.v(Constants.TAG, "Server accepts gzip request bodies");
+                serverAcceptsGzip = true;
+            }
+        }
+
+        return response;
+    }
+
+    private static boolean shouldCompress(Request request) throws IOException {
+        RequestBody body = request.body();
+        if (body == null || request.header("Content-Encoding") != null) {
+            return false;
+        }
+
+        MediaType contentType = body.contentType();
+        if (contentType == null || !"json".equals(contentType.subtype())) {
+            return false;
+        }
+
+        return body.contentLength() >= MIN_COMPRESS_BYTES;
+    }
+
+    /**
+     * Compress the given body in memory so that the <code>Content-Length</code> is still known.
+     *
+     * @param body The body to compress.
+     * @return The compressed body.
+     * @throws IOException If the body can not be written.
+     */
+    static RequestBody gzip(RequestBody body) throws IOException {
+        Buffer compressed = new Buffer();
+        BufferedSink gzipSink = Okio.buffer(new GzipSink(compressed));
+        body.writeTo(gzipSink);
+        gzipSink.close();
+
+        return RequestBody.create(body.contentType(), compressed.readByteString());
+    }
+
+    static void setServerAcceptsGzip(boolean accepts) {
+        serverAcceptsGzip = accepts;
+    }
+}
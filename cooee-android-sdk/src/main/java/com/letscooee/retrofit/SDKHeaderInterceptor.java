@@ -0,0 +1,148 @@
+package com.letscooee.retrofit;
+
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.letscooee.BuildConfig;
+import com.letscooee.utils.Constants;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * An OkHttp interceptor which adds the SDK headers to every Cooee API request.
+ * <p>
+ * The headers are precomputed as immutable {@link Headers} and rebuilt only via {@link #update} when the token,
+ * user id, app version or wrapper name changes. So a request only costs one header merge instead of encoding
+ * the device name and adding each header again.
+ *
+ * @since 1.3.12
+ */
+class SDKHeaderInterceptor implements Interceptor {
+
+    static final String PUBLIC_API_PATH = "/v1/device/validate";
+
+    /**
+     * {@link SystemClock#elapsedRealtime()} of the last successful authenticated request or 0 if none.
+     */
+    private static volatile long lastAuthenticatedSuccessAt = 0;
+
+    private final String encodedDeviceName;
+    private final boolean isAppDebuggable;
+
+    /**
+     * Headers for the public APIs i.e. without the token and user id.
+     */
+    private volatile Headers publicHeaders;
+    private volatile Headers authHeaders;
+
+    SDKHeaderInterceptor(String deviceName, boolean isAppDebuggable) {
+        this.encodedDeviceName = encode(deviceName);
+        this.isAppDebuggable = isAppDebuggable;
+        this.update(null, "", "", "");
+    }
+
+    private static String encode(String deviceName) {
+        if (TextUtils.isEmpty(deviceName)) {
+            return "";
+        }
+
+        try {
+            return URLEncoder.encode(deviceName, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            Log.e(Constants.TAG, "Unable to encode device name", e);
+            return "";
+        }
+    }
+
+    /**
+     * Rebuild the precomputed headers. Should be called whenever any of these values change.
+     */
+    synchronized void update(String apiToken, String userId, String appVersion, String wrapperName) {
+        Headers.Builder builder = new Headers.Builder()
+                .add("Content-Type", "application/json");
+
+        if (BuildConfig.DEBUG) {
+            builder.add("sdk-debug", "1");
+        }
+
+        if (isAppDebuggable) {
+            builder.add("app-debug", "1");
+        }
+
+        builder.add("device-name", encodedDeviceName);
+        builder.add("sdk-version", BuildConfig.VERSION_NAME);
+        builder.add("sdk-version-code", String.valueOf(BuildConfig.VERSION_CODE));
+        builder.add("app-version", appVersion == null ? "" : appVersion);
+
+        if (!TextUtils.isEmpty(wrapperName)) {
+            builder.add("sdk-wrapper", wrapperName);
+        }
+
+        Headers commonHeaders = builder.build();
+        Headers.Builder authBuilder = commonHeaders.newBuilder();
+
+        if (apiToken != null) {
+            authBuilder.add("x-sdk-token", apiToken);
+        }
+
+        if (userId != null) {
+            authBuilder.add("user-id", userId);
+        }
+
+        this.publicHeaders = commonHeaders;
+        this.authHeaders = authBuilder.build();
+    }
+
+    Headers getHeaders(boolean isPublicAPI) {
+        return isPublicAPI ? publicHeaders : authHeaders;
+    }
+
+    /**
+     * Add the precomputed headers to the given request.
+     */
+    Request prepare(Request request) {
+        Headers headers = getHeaders(isPublicAPI(request));
+
+        if (request.headers().size() > 0) {
+            headers = request.headers().newBuilder().addAll(headers).build();
+        }
+
+        return request.newBuilder().headers(headers).build();
+    }
+
+    private static boolean isPublicAPI(Request request) {
+        return PUBLIC_API_PATH.equals(request.url().encodedPath());
+    }
+
+    static long getLastAuthenticatedSuccessAt() {
+        return lastAuthenticatedSuccessAt;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = prepare(chain.request());
+
+        if (BuildConfig.DEBUG) {
+            Log.d(Constants.TAG, "Request: " + request.method() + " " + request.url());
+        }
+
+        Response response = chain.proceed(request);
+
+        if (response.isSuccessful() && !isPublicAPI(request)) {
+            lastAuthenticatedSuccessAt = SystemClock.elapsedRealtime();
+        }
+
+        return response;
+    }
+}
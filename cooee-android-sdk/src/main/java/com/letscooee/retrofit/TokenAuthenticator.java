@@ -0,0 +1,77 @@
+package com.letscooee.retrofit;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.letscooee.utils.Constants;
+
+import okhttp3.Authenticator;
+import okhttp3.Headers;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * Handles the <code>401 Unauthorized</code> of the Cooee APIs by refreshing the SDK token (once) via
+ * {@link TokenRefresher} and replaying the request with the new token.
+ * <p>
+ * OkHttp calls it on the thread of the request, so all the requests rejected together wait for the same refresh
+ * (check {@link DeviceAuthService#refreshToken}) and are then replayed.
+ *
+ * @since 1.3.12
+ */
+class TokenAuthenticator implements Authenticator {
+
+    static final String HEADER_SDK_TOKEN = "x-sdk-token";
+    static final String HEADER_USER_ID = "user-id";
+
+    private final SDKHeaderInterceptor headerInterceptor;
+    private volatile TokenRefresher tokenRefresher;
+
+    TokenAuthenticator(SDKHeaderInterceptor headerInterceptor) {
+        this.headerInterceptor = headerInterceptor;
+    }
+
+    void setTokenRefresher(TokenRefresher tokenRefresher) {
+        this.tokenRefresher = tokenRefresher;
+    }
+
+    @Nullable
+    @Override
+    public Request authenticate(@Nullable Route route, Response response) {
+        Request request = response.request();
+
+        if (SDKHeaderInterceptor.PUBLIC_API_PATH.equals(request.url().encodedPath())) {
+            return null;
+        }
+
+        // The request was already replayed with a new token, do not loop
+        if (response.priorResponse() != null) {
+            Log.w(Constants.TAG, "SDK token rejected again for " + request.url().encodedPath());
+            return null;
+        }
+
+        TokenRefresher refresher = this.tokenRefresher;
+        if (refresher == null || !refresher.refreshToken(request.header(HEADER_SDK_TOKEN))) {
+            return null;
+        }
+
+        // The follow up request does not go through the interceptors again so set the new values here
+        Headers authHeaders = headerInterceptor.getHeaders(false);
+        Request.Builder builder = request.newBuilder();
+        setHeader(builder, HEADER_SDK_TOKEN, authHeaders.get(HEADER_SDK_TOKEN));
+        setHeader(builder, HEADER_USER_ID, authHeaders.get(HEADER_USER_ID));
+
+        Log.d(Constants.TAG, "Replaying " + request.url().encodedPath() + " with the new SDK token");
+        return builder.build();
+    }
+
+    private static void setHeader(Request.Builder builder, String name, @Nullable String value) {
+        if (value == null) {
+            builder.removeHeader(name);
+        } else {
+            builder.header(name, value);
+        }
+    }
+}
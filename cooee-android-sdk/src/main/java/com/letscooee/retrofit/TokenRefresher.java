@@ -0,0 +1,22 @@
+package com.letscooee.retrofit;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Acquires a new SDK token when the server rejects the current one. Check {@link DeviceAuthService#refreshToken}.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public interface TokenRefresher {
+
+    /**
+     * Replace the rejected token with a new one. Blocks till the token is acquired (or a timeout) so must not be
+     * called on the main thread.
+     *
+     * @param rejectedToken The token sent with the request which got <code>401 Unauthorized</code>.
+     * @return <code>true</code> if a token different from the rejected one is available now.
+     */
+    boolean refreshToken(@Nullable String rejectedToken);
+}
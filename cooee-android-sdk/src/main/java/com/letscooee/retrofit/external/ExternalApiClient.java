@@ -1,10 +1,14 @@
 package com.letscooee.retrofit.external;
 
 import com.letscooee.BuildConfig;
+import com.letscooee.retrofit.APIClient;
+import okhttp3.OkHttpClient;
 import retrofit2.Retrofit;
 import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
 import retrofit2.converter.gson.GsonConverterFactory;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Provide retrofit client to access any external API other than Cooee's APIs.
  *
@@ -13,15 +17,24 @@ import retrofit2.converter.gson.GsonConverterFactory;
  */
 public class ExternalApiClient {
 
+    private static final long DOWNLOAD_READ_TIMEOUT_SECONDS = 120;
+
     private static Retrofit retrofit;
+    private static ExternalApiService apiService;
 
     private static synchronized Retrofit getClient() {
         if (retrofit != null) {
             return retrofit;
         }
 
+        // Derived from the shared client so downloads reuse its connection pool but get more time to stream
+        OkHttpClient okHttpClient = APIClient.getSharedHttpClient().newBuilder()
+                .readTimeout(DOWNLOAD_READ_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .build();
+
         retrofit = new Retrofit.Builder()
                 .baseUrl(BuildConfig.SERVER_URL)
+                .client(okHttpClient)
                 .addConverterFactory(GsonConverterFactory.create())
                 .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
                 .build();
@@ -29,8 +42,11 @@ public class ExternalApiClient {
         return retrofit;
     }
 
-    public static ExternalApiService getAPIService() {
-        Retrofit retrofit = getClient();
-        return retrofit.create(ExternalApiService.class);
+    public static synchronized ExternalApiService getAPIService() {
+        if (apiService == null) {
+            apiService = getClient().create(ExternalApiService.class);
+        }
+
+        return apiService;
     }
 }
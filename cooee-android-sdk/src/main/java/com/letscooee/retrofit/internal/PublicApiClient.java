@@ -1,12 +1,14 @@
 package com.letscooee.retrofit.internal;
 
 import com.letscooee.BuildConfig;
+import com.letscooee.retrofit.APIClient;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
 public class PublicApiClient {
 
     private static Retrofit retrofit = null;
+    private static PublicApiService apiService = null;
 
     private static synchronized Retrofit getClient() {
         if (retrofit != null) {
@@ -15,14 +17,18 @@ public class PublicApiClient {
 
         retrofit = new Retrofit.Builder()
                 .baseUrl(BuildConfig.SERVER_URL)
+                .client(APIClient.getSharedHttpClient())
                 .addConverterFactory(GsonConverterFactory.create())
                 .build();
 
         return retrofit;
     }
 
-    public static PublicApiService getAPIService() {
-        Retrofit retrofit = getClient();
-        return retrofit.create(PublicApiService.class);
+    public static synchronized PublicApiService getAPIService() {
+        if (apiService == null) {
+            apiService = getClient().create(PublicApiService.class);
+        }
+
+        return apiService;
     }
 }
@@ -1,9 +1,14 @@
 package com.letscooee.room;
 
 import android.content.Context;
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import com.letscooee.room.storage.StoredItem;
+import com.letscooee.room.storage.StoredItemDAO;
 import com.letscooee.room.task.PendingTaskDAO;
 import com.letscooee.room.task.PendingTask;
 
@@ -13,11 +18,64 @@ import com.letscooee.room.task.PendingTask;
  * @author Ashish Gaikwad on 19/5/21
  * @version 0.3.0
  */
-@Database(entities = {PendingTask.class}, exportSchema = false, version = 1)
+@Database(entities = {PendingTask.class, StoredItem.class}, exportSchema = true, version = 5)
 public abstract class CooeeDatabase extends RoomDatabase {
 
     private static final String DB_NAME = "letscooee";
 
+    /**
+     * Adds the indexes on {@link PendingTask} used by the fetch, retry & cleanup queries.
+     */
+    public static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_PendingTask_attempts` ON `PendingTask` (`attempts`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_PendingTask_type_date_created` ON `PendingTask` (`type`, `date_created`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_PendingTask_date_created` ON `PendingTask` (`date_created`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_PendingTask_last_attempted` ON `PendingTask` (`last_attempted`)");
+        }
+    };
+
+    /**
+     * Adds {@link PendingTask#nextAttemptAt} to reattempt the failed tasks with backoff.
+     */
+    public static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE `PendingTask` ADD COLUMN `next_attempt_at` INTEGER NOT NULL DEFAULT 0");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_PendingTask_next_attempt_at` ON `PendingTask` (`next_attempt_at`)");
+        }
+    };
+
+    /**
+     * Adds the compact stored format of {@link PendingTask}. Existing rows stay in the JSON format and are
+     * compacted later in background.
+     */
+    public static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE `PendingTask` ADD COLUMN `payload` BLOB");
+            database.execSQL("ALTER TABLE `PendingTask` ADD COLUMN `format` INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    /**
+     * Adds {@link StoredItem} to hold the collections which were stored as JSON in the shared preferences. The
+     * preference keys are moved by {@link com.letscooee.room.storage.KeyValueStore}.
+     */
+    public static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `StoredItem` (`collection` TEXT NOT NULL, `item_key` TEXT NOT NULL, `value` TEXT, `expire_at` INTEGER NOT NULL DEFAULT 0, `date_updated` INTEGER NOT NULL, PRIMARY KEY(`collection`, `item_key`))");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_StoredItem_collection_expire_at` ON `StoredItem` (`collection`, `expire_at`)");
+        }
+    };
+
+    /**
+     * All the schema migrations in the order of the versions.
+     */
+    public static final Migration[] MIGRATIONS = {MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5};
+
     private static CooeeDatabase instance;
 
     /**
@@ -30,6 +88,7 @@ public abstract class CooeeDatabase extends RoomDatabase {
         if (instance == null) {
             instance = Room.databaseBuilder(context.getApplicationContext(), CooeeDatabase.class, DB_NAME)
                     //.fallbackToDestructiveMigration()
+                    .addMigrations(MIGRATIONS)
                     .allowMainThreadQueries()
                     .build();
         }
@@ -37,4 +96,6 @@ public abstract class CooeeDatabase extends RoomDatabase {
     }
 
     public abstract PendingTaskDAO pendingTaskDAO();
+
+    public abstract StoredItemDAO storedItemDAO();
 }
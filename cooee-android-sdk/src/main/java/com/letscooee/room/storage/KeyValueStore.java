@@ -0,0 +1,326 @@
+package com.letscooee.room.storage;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.reflect.TypeToken;
+import com.letscooee.models.AppFont;
+import com.letscooee.models.trigger.EmbeddedTrigger;
+import com.letscooee.room.CooeeDatabase;
+import com.letscooee.utils.Constants;
+import com.letscooee.utils.LocalStorageHelper;
+import com.letscooee.utils.MainThreadStorageDetector;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A typed store for the collections which were earlier saved as whole JSON strings in the shared preferences.
+ * Every item of a collection is a {@link StoredItem} row so a change only touches that row instead of rewriting
+ * (and syncing) the complete preferences file.
+ * <p>
+ * The existing preference keys are moved to the database once, when the store is created.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class KeyValueStore {
+
+    public static final String COLLECTION_ACTIVATED_TRIGGERS = "activated_triggers";
+    public static final String COLLECTION_ACTIVE_TRIGGER = "active_trigger";
+    public static final String COLLECTION_SCREENSHOT_SYNC_TIME = "screenshot_sync_time";
+    public static final String COLLECTION_CACHED_FONTS = "cached_fonts";
+    public static final String COLLECTION_TRIGGER_DETAILS = "trigger_details";
+
+    /**
+     * Key of the only item of the single value collections like {@link #COLLECTION_ACTIVE_TRIGGER}.
+     */
+    public static final String KEY_CURRENT = "current";
+
+    /**
+     * Preference keys which are moved to the database.
+     */
+    private static final String[] LEGACY_KEYS = {
+            Constants.STORAGE_ACTIVE_TRIGGERS,
+            Constants.STORAGE_ACTIVATED_TRIGGERS,
+            Constants.STORAGE_ACTIVE_TRIGGER,
+            Constants.STORAGE_SCREENSHOT_SYNC_TIME,
+            Constants.STORAGE_CACHED_FONTS,
+    };
+
+    private static final Gson gson = new Gson();
+
+    private static KeyValueStore instance;
+
+    private final Context context;
+    private final StoredItemDAO storedItemDAO;
+
+    @VisibleForTesting
+    public KeyValueStore(Context context, CooeeDatabase database) {
+        this.context = context.getApplicationContext();
+        this.storedItemDAO = database.storedItemDAO();
+
+        this.migrateFromPreferences();
+    }
+
+    public static KeyValueStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (KeyValueStore.class) {
+                if (instance == null) {
+                    instance = new KeyValueStore(context, CooeeDatabase.getInstance(context));
+                }
+            }
+        }
+
+        return instance;
+    }
+
+    @Nullable
+    public <T> T get(String collection, String key, Class<T> type) {
+        MainThreadStorageDetector.check("KeyValueStore.get(" + collection + ")");
+        StoredItem item = storedItemDAO.get(collection, key);
+        return item == null ? null : fromJson(item, type);
+    }
+
+    public <T> List<T> getAll(String collection, Class<T> type) {
+        MainThreadStorageDetector.check("KeyValueStore.getAll(" + collection + ")");
+        List<StoredItem> items = storedItemDAO.getAll(collection);
+        List<T> values = new ArrayList<>(items.size());
+
+        for (StoredItem item : items) {
+            T value = fromJson(item, type);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * @return All the items of the collection by their keys.
+     */
+    public <T> Map<String, T> getAllByKey(String collection, Class<T> type) {
+        MainThreadStorageDetector.check("KeyValueStore.getAllByKey(" + collection + ")");
+        List<StoredItem> items = storedItemDAO.getAll(collection);
+        Map<String, T> values = new HashMap<>(items.size());
+
+        for (StoredItem item : items) {
+            T value = fromJson(item, type);
+            if (value != null) {
+                values.put(item.key, value);
+            }
+        }
+
+        return values;
+    }
+
+    @Nullable
+    private <T> T fromJson(StoredItem item, Class<T> type) {
+        try {
+            return gson.fromJson(item.value, type);
+        } catch (JsonSyntaxException e) {
+            Log.e(Constants.TAG, "Dropping unreadable " + item, e);
+            storedItemDAO.delete(item.collection, item.key);
+            return null;
+        }
+    }
+
+    public void put(String collection, String key, Object value) {
+        put(collection, key, value, 0);
+    }
+
+    /**
+     * Add or update a single item of the collection.
+     *
+     * @param collection The collection of the item.
+     * @param key        Unique key of the item in the collection.
+     * @param value      Value to store as JSON.
+     * @param expireAt   Time after which the item is removed by {@link #deleteExpired}, 0 to never expire.
+     */
+    public void put(String collection, String key, Object value, long expireAt) {
+        MainThreadStorageDetector.check("KeyValueStore.put(" + collection + ")");
+        storedItemDAO.upsert(new StoredItem(collection, key, gson.toJson(value), expireAt));
+    }
+
+    public void remove(String collection, String key) {
+        MainThreadStorageDetector.check("KeyValueStore.remove(" + collection + ")");
+        storedItemDAO.delete(collection, key);
+    }
+
+    /**
+     * Replace all the items of the collection at once.
+     *
+     * @param collection The collection to replace.
+     * @param values     New items by their keys.
+     */
+    public void replaceAll(String collection, Map<String, ?> values) {
+        List<StoredItem> items = new ArrayList<>(values.size());
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            items.add(new StoredItem(collection, entry.getKey(), gson.toJson(entry.getValue()), 0));
+        }
+
+        MainThreadStorageDetector.check("KeyValueStore.replaceAll(" + collection + ")");
+        storedItemDAO.replaceAll(collection, items);
+    }
+
+    public int deleteExpired(String collection, long now) {
+        MainThreadStorageDetector.check("KeyValueStore.deleteExpired(" + collection + ")");
+        return storedItemDAO.deleteExpired(collection, now);
+    }
+
+    /**
+     * Keep only the most recently updated items of the collection.
+     *
+     * @param collection The collection to trim.
+     * @param maxItems   Number of the items to keep.
+     * @return Number of removed items.
+     */
+    public int trim(String collection, int maxItems) {
+        MainThreadStorageDetector.check("KeyValueStore.trim(" + collection + ")");
+        return storedItemDAO.trim(collection, maxItems);
+    }
+
+    /**
+     * Move the collections stored as JSON in the shared preferences to the database and remove those keys.
+     * Does nothing once the keys are removed.
+     */
+    private void migrateFromPreferences() {
+        SharedPreferences preferences = LocalStorageHelper.getPreferences(context);
+        boolean hasLegacyKeys = false;
+        for (String key : LEGACY_KEYS) {
+            hasLegacyKeys |= preferences.contains(key);
+        }
+
+        if (!hasLegacyKeys) {
+            return;
+        }
+
+        List<StoredItem> items = new ArrayList<>();
+
+        List<EmbeddedTrigger> activatedTriggers = readLegacyActivatedTriggers();
+        for (EmbeddedTrigger trigger : activatedTriggers) {
+            items.add(new StoredItem(COLLECTION_ACTIVATED_TRIGGERS, trigger.getTriggerID(), gson.toJson(trigger),
+                    trigger.getExpireAt()));
+        }
+
+        EmbeddedTrigger activeTrigger = readLegacyActiveTrigger();
+        if (activeTrigger != null) {
+            items.add(new StoredItem(COLLECTION_ACTIVE_TRIGGER, KEY_CURRENT, gson.toJson(activeTrigger), 0));
+        }
+
+        for (Map.Entry<String, Date> entry : readLegacyScreenshotSyncTime().entrySet()) {
+            if (entry.getValue() != null) {
+                items.add(new StoredItem(COLLECTION_SCREENSHOT_SYNC_TIME, entry.getKey(),
+                        gson.toJson(entry.getValue().getTime()), 0));
+            }
+        }
+
+        for (AppFont font : readLegacyCachedFonts()) {
+            items.add(new StoredItem(COLLECTION_CACHED_FONTS, font.getName(), gson.toJson(font), 0));
+        }
+
+        storedItemDAO.upsertAll(items);
+
+        SharedPreferences.Editor editor = preferences.edit();
+        for (String key : LEGACY_KEYS) {
+            editor.remove(key);
+        }
+        LocalStorageHelper.apply(editor);
+
+        Log.d(Constants.TAG, "Moved " + items.size() + " items from preferences to database");
+    }
+
+    /**
+     * Read the activated triggers including the oldest map format of {@link Constants#STORAGE_ACTIVE_TRIGGERS}.
+     */
+    private List<EmbeddedTrigger> readLegacyActivatedTriggers() {
+        List<EmbeddedTrigger> activatedTriggers = LocalStorageHelper.getEmbeddedTriggers(context,
+                Constants.STORAGE_ACTIVATED_TRIGGERS);
+
+        List<HashMap<String, Object>> oldActiveTriggers = LocalStorageHelper.getList(context,
+                Constants.STORAGE_ACTIVE_TRIGGERS);
+
+        for (HashMap<String, Object> trigger : oldActiveTriggers) {
+            String oldDuration = (String) Objects.requireNonNull(trigger.get("duration"));
+            Long expireAt = Long.parseLong(oldDuration) / 1000;
+
+            activatedTriggers.add(new EmbeddedTrigger(
+                    (String) trigger.get("triggerID"),
+                    (String) trigger.get("engagementID"),
+                    expireAt
+            ));
+        }
+
+        List<EmbeddedTrigger> validTriggers = new ArrayList<>(activatedTriggers.size());
+        for (EmbeddedTrigger trigger : activatedTriggers) {
+            if (!TextUtils.isEmpty(trigger.getTriggerID()) && trigger.getExpireAt() != null && !trigger.isExpired()) {
+                validTriggers.add(trigger);
+            }
+        }
+
+        return validTriggers;
+    }
+
+    @Nullable
+    private EmbeddedTrigger readLegacyActiveTrigger() {
+        try {
+            return LocalStorageHelper.getEmbeddedTrigger(context, Constants.STORAGE_ACTIVE_TRIGGER, null);
+        } catch (JsonSyntaxException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Date> readLegacyScreenshotSyncTime() {
+        String rawString = LocalStorageHelper.getString(context, Constants.STORAGE_SCREENSHOT_SYNC_TIME, null);
+        if (TextUtils.isEmpty(rawString)) {
+            return new HashMap<>();
+        }
+
+        try {
+            Map<String, Date> syncTime = gson.fromJson(rawString, new TypeToken<Map<String, Date>>() {
+            }.getType());
+            return syncTime == null ? new HashMap<>() : syncTime;
+        } catch (JsonSyntaxException e) {
+            return new HashMap<>();
+        }
+    }
+
+    private List<AppFont> readLegacyCachedFonts() {
+        String rawString = LocalStorageHelper.getString(context, Constants.STORAGE_CACHED_FONTS, null);
+        if (TextUtils.isEmpty(rawString)) {
+            return new ArrayList<>();
+        }
+
+        try {
+            List<AppFont> fonts = gson.fromJson(rawString, new TypeToken<ArrayList<AppFont>>() {
+            }.getType());
+            if (fonts == null) {
+                return new ArrayList<>();
+            }
+
+            List<AppFont> namedFonts = new ArrayList<>(fonts.size());
+            for (AppFont font : fonts) {
+                if (font != null && !TextUtils.isEmpty(font.getName())) {
+                    namedFonts.add(font);
+                }
+            }
+
+            return namedFonts;
+        } catch (JsonSyntaxException e) {
+            return new ArrayList<>();
+        }
+    }
+}
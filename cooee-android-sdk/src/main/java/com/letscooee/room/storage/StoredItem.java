@@ -0,0 +1,56 @@
+package com.letscooee.room.storage;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Database entity to hold one item of a collection (like activated triggers or cached fonts) which was earlier
+ * stored as a whole JSON blob in the shared preferences. Each item is a row so it can be added, updated or
+ * removed without rewriting the whole collection.
+ *
+ * @since 1.3.12
+ */
+@Entity(primaryKeys = {"collection", "item_key"}, indices = {
+        @Index({"collection", "expire_at"}),
+})
+public class StoredItem {
+
+    @NonNull
+    @ColumnInfo(name = "collection")
+    public String collection;
+
+    @NonNull
+    @ColumnInfo(name = "item_key")
+    public String key;
+
+    /**
+     * JSON value of the item.
+     */
+    @ColumnInfo(name = "value")
+    public String value;
+
+    /**
+     * Time after which the item can be removed, 0 if the item never expires.
+     */
+    @ColumnInfo(name = "expire_at", defaultValue = "0")
+    public long expireAt;
+
+    @ColumnInfo(name = "date_updated")
+    public long dateUpdated;
+
+    public StoredItem(@NonNull String collection, @NonNull String key, String value, long expireAt) {
+        this.collection = collection;
+        this.key = key;
+        this.value = value;
+        this.expireAt = expireAt;
+        this.dateUpdated = System.currentTimeMillis();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "StoredItem(collection=" + collection + ",key=" + key + ")";
+    }
+}
@@ -0,0 +1,70 @@
+package com.letscooee.room.storage;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+/**
+ * DAO to read and write the items of {@link StoredItem} table.
+ *
+ * @since 1.3.12
+ */
+@Dao
+public abstract class StoredItemDAO {
+
+    @Query("SELECT * FROM StoredItem WHERE collection = :collection AND item_key = :key")
+    public abstract StoredItem get(String collection, String key);
+
+    @Query("SELECT * FROM StoredItem WHERE collection = :collection ORDER BY date_updated")
+    public abstract List<StoredItem> getAll(String collection);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void upsert(StoredItem item);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void upsertAll(List<StoredItem> items);
+
+    @Query("DELETE FROM StoredItem WHERE collection = :collection AND item_key = :key")
+    public abstract int delete(String collection, String key);
+
+    @Query("DELETE FROM StoredItem WHERE collection = :collection")
+    public abstract int deleteAll(String collection);
+
+    /**
+     * Delete the items of the collection which are expired.
+     *
+     * @param collection The collection to clean up.
+     * @param now        Current time.
+     * @return Number of deleted items.
+     */
+    @Query("DELETE FROM StoredItem WHERE collection = :collection AND expire_at > 0 AND expire_at < :now")
+    public abstract int deleteExpired(String collection, long now);
+
+    /**
+     * Delete the least recently updated items of the collection so that only the given number of items are left.
+     *
+     * @param collection The collection to trim.
+     * @param maxItems   Number of the items to keep.
+     * @return Number of deleted items.
+     */
+    @Query("DELETE FROM StoredItem WHERE collection = :collection AND item_key NOT IN "
+            + "(SELECT item_key FROM StoredItem WHERE collection = :collection "
+            + "ORDER BY date_updated DESC LIMIT :maxItems)")
+    public abstract int trim(String collection, int maxItems);
+
+    /**
+     * Replace all the items of a collection in a single transaction.
+     *
+     * @param collection The collection to replace.
+     * @param items      The new items of the collection.
+     */
+    @Transaction
+    public void replaceAll(String collection, List<StoredItem> items) {
+        deleteAll(collection);
+        upsertAll(items);
+    }
+}
@@ -3,6 +3,7 @@ package com.letscooee.room.task;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 import androidx.room.TypeConverters;
 
@@ -12,7 +13,13 @@ import androidx.room.TypeConverters;
  * @author Ashish Gaikwad on 19/5/21
  * @version 0.3.0
  */
-@Entity
+@Entity(indices = {
+        @Index("attempts"),
+        @Index({"type", "date_created"}),
+        @Index("date_created"),
+        @Index("last_attempted"),
+        @Index("next_attempt_at"),
+})
 public class PendingTask {
 
     @PrimaryKey(autoGenerate = true)
@@ -24,12 +31,31 @@ public class PendingTask {
     @ColumnInfo(name = "date_created")
     public long dateCreated;
 
+    /**
+     * Raw JSON data when stored in {@link PendingTaskCodec#FORMAT_JSON}. Use {@link PendingTaskCodec#decode}
+     * to read the data irrespective of the format.
+     */
     @ColumnInfo(name = "data")
     public String data;
 
+    /**
+     * Compressed data when stored in {@link PendingTaskCodec#FORMAT_GZIP_JSON}.
+     */
+    @ColumnInfo(name = "payload", typeAffinity = ColumnInfo.BLOB)
+    public byte[] payload;
+
+    @ColumnInfo(name = "format", defaultValue = "0")
+    public int format;
+
     @ColumnInfo(name = "last_attempted")
     public long lastAttempted;
 
+    /**
+     * Time after which the task can be reattempted. See {@link RetryBackoff}.
+     */
+    @ColumnInfo(name = "next_attempt_at", defaultValue = "0")
+    public long nextAttemptAt;
+
     @ColumnInfo(name = "type")
     @TypeConverters(PendingTaskTypeConverter.class)
     public PendingTaskType type;
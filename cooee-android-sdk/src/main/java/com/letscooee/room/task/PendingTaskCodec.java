@@ -0,0 +1,101 @@
+package com.letscooee.room.task;
+
+import androidx.annotation.NonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes the data of a {@link PendingTask} in a compact stored format. Large JSON payloads are stored
+ * gzip compressed in {@link PendingTask#payload} while small ones (where compression does not pay off) stay
+ * as plain JSON in {@link PendingTask#data}. {@link PendingTask#format} tells which one is used so the
+ * rows stored before this format was introduced can still be read.
+ *
+ * @since 1.3.12
+ */
+public class PendingTaskCodec {
+
+    public static final int FORMAT_JSON = 0;
+    public static final int FORMAT_GZIP_JSON = 1;
+
+    /**
+     * JSON smaller than this is not compressed.
+     */
+    public static final int MIN_COMPRESS_LENGTH = 256;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private PendingTaskCodec() {
+    }
+
+    /**
+     * Store the given JSON in the given task in the compact format.
+     *
+     * @param task The task to update.
+     * @param json The raw JSON data of the task.
+     */
+    public static void encode(@NonNull PendingTask task, String json) {
+        if (json == null || json.length() < MIN_COMPRESS_LENGTH) {
+            task.format = FORMAT_JSON;
+            task.data = json;
+            task.payload = null;
+            return;
+        }
+
+        task.format = FORMAT_GZIP_JSON;
+        task.payload = gzip(json);
+        task.data = null;
+    }
+
+    /**
+     * Read the raw JSON of the given task irrespective of the stored format.
+     *
+     * @param task The task to read.
+     * @return The raw JSON data of the task.
+     */
+    public static String decode(@NonNull PendingTask task) {
+        if (task.format == FORMAT_GZIP_JSON) {
+            return gunzip(task.payload);
+        }
+
+        return task.data;
+    }
+
+    static byte[] gzip(String json) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(json.length() / 4);
+
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream)) {
+            gzipStream.write(json.getBytes(UTF_8));
+        } catch (IOException e) {
+            // Never happens with in-memory streams
+            throw new IllegalStateException("Unable to compress pending task", e);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    static String gunzip(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length * 4);
+        byte[] buffer = new byte[4096];
+
+        try (InputStream gzipStream = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            int read;
+            while ((read = gzipStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to decompress pending task", e);
+        }
+
+        return new String(outputStream.toByteArray(), UTF_8);
+    }
+}
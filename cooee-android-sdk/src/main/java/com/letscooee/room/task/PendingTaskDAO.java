@@ -18,18 +18,133 @@ import java.util.List;
 @Dao
 public interface PendingTaskDAO {
 
-    @Query("SELECT * FROM PendingTask WHERE attempts < 20")
+    int MAX_ATTEMPTS = 20;
+
+    /**
+     * SQL expression to compute the priority of a task from its type. Lower value is processed first and
+     * must match {@link PendingTaskType#getPriority()} (checked by the tests). No index can serve it, so it is only
+     * used by the rare eviction and the first page of all the types; the processing pages every type separately
+     * (see {@link #fetchPendingPageOfType}).
+     */
+    String PRIORITY = "(CASE type"
+            + " WHEN 'API_UPDATE_PUSH_TOKEN' THEN 0"
+            + " WHEN 'API_UPDATE_PROFILE' THEN 1"
+            + " WHEN 'API_DEVICE_PROPERTY' THEN 2"
+            + " WHEN 'API_SEND_EVENT' THEN 3"
+            + " WHEN 'API_SESSION_CONCLUDE' THEN 4"
+            + " ELSE 5 END)";
+
+    @Query("SELECT * FROM PendingTask WHERE attempts < " + MAX_ATTEMPTS)
     List<PendingTask> fetchPending();
 
+    /**
+     * Fetch the first page of pending tasks which are due (see {@link PendingTask#nextAttemptAt}) ordered by
+     * the priority of the type and then by the creation date.
+     *
+     * @param now   Current time to skip the tasks which are backing off.
+     * @param limit Maximum number of tasks to fetch.
+     * @return List of pending tasks.
+     */
+    @Query("SELECT * FROM PendingTask WHERE attempts < " + MAX_ATTEMPTS + " AND next_attempt_at <= :now"
+            + " ORDER BY " + PRIORITY + ", date_created, id LIMIT :limit")
+    List<PendingTask> fetchPendingPage(long now, int limit);
+
+    /**
+     * Fetch the next page of pending tasks of the given type which are due (see {@link PendingTask#nextAttemptAt})
+     * ordered by the creation date (keyset pagination served by the index on <code>type, date_created</code>).
+     *
+     * @param type             Name of the {@link PendingTaskType}.
+     * @param afterDateCreated Creation date of the last task of the previous page or {@link Long#MIN_VALUE} for the
+     *                         first page.
+     * @param afterId          Id of the last task of the previous page or {@link Long#MIN_VALUE} for the first page.
+     * @param now              Current time to skip the tasks which are backing off.
+     * @param limit            Maximum number of tasks to fetch.
+     * @return List of pending tasks.
+     */
+    @Query("SELECT * FROM PendingTask WHERE type = :type AND attempts < " + MAX_ATTEMPTS
+            + " AND next_attempt_at <= :now"
+            + " AND (date_created > :afterDateCreated OR (date_created = :afterDateCreated AND id > :afterId))"
+            + " ORDER BY date_created, id LIMIT :limit")
+    List<PendingTask> fetchPendingPageOfType(String type, long afterDateCreated, long afterId, long now, int limit);
+
     @Insert
     long insert(PendingTask task);
 
+    @Insert
+    List<Long> insertAll(List<PendingTask> tasks);
+
     @Delete
     void delete(PendingTask task);
 
+    @Delete
+    void delete(List<PendingTask> tasks);
+
     @Query("update PendingTask set attempts = :count and  last_attempted = :time where id = :id")
     void update(int id, int count, long time);
 
     @Update(onConflict = OnConflictStrategy.REPLACE)
     void updateByObject(PendingTask pendingTask);
+
+    @Update(onConflict = OnConflictStrategy.REPLACE)
+    void updateByObjects(List<PendingTask> pendingTasks);
+
+    @Query("SELECT COUNT(*) FROM PendingTask")
+    int count();
+
+    /**
+     * @return Number of the tasks which are yet to be processed, including the ones which are backing off.
+     */
+    @Query("SELECT COUNT(*) FROM PendingTask WHERE attempts < " + MAX_ATTEMPTS)
+    int countPending();
+
+    /**
+     * @return The earliest {@link PendingTask#nextAttemptAt} of the tasks yet to be processed or <code>null</code>
+     * if there is none.
+     */
+    @Query("SELECT MIN(next_attempt_at) FROM PendingTask WHERE attempts < " + MAX_ATTEMPTS)
+    Long earliestNextAttemptAt();
+
+    @Query("SELECT COALESCE(SUM(COALESCE(LENGTH(payload), LENGTH(data), 0)), 0) FROM PendingTask")
+    long totalPayloadBytes();
+
+    /**
+     * Fetch the tasks which are still stored as plain JSON but are big enough to be compressed.
+     *
+     * @param minLength Minimum length of the JSON to compress.
+     * @param limit     Maximum number of tasks to fetch.
+     * @return List of tasks.
+     */
+    @Query("SELECT * FROM PendingTask WHERE format = 0 AND LENGTH(data) >= :minLength LIMIT :limit")
+    List<PendingTask> fetchUncompacted(int minLength, int limit);
+
+    @Query("UPDATE PendingTask SET data = :data, payload = :payload, format = :format WHERE id = :id")
+    void updateStoredFormat(long id, String data, byte[] payload, int format);
+
+    /**
+     * Delete the dead tasks which are not going to be reattempted anymore.
+     *
+     * @return Number of deleted tasks.
+     */
+    @Query("DELETE FROM PendingTask WHERE attempts >= " + MAX_ATTEMPTS)
+    int deleteDead();
+
+    /**
+     * Delete the tasks of the given type which were created before the given time.
+     *
+     * @param type   The type of the tasks.
+     * @param before The creation time before which the tasks are expired.
+     * @return Number of deleted tasks.
+     */
+    @Query("DELETE FROM PendingTask WHERE type = :type AND date_created < :before")
+    int deleteExpired(String type, long before);
+
+    /**
+     * Evict the lowest priority and then the oldest tasks.
+     *
+     * @param count Number of tasks to evict.
+     * @return Number of deleted tasks.
+     */
+    @Query("DELETE FROM PendingTask WHERE id IN (SELECT id FROM PendingTask ORDER BY " + PRIORITY
+            + " DESC, date_created, id LIMIT :count)")
+    int evict(int count);
 }
@@ -0,0 +1,133 @@
+package com.letscooee.room.task;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.letscooee.room.CooeeDatabase;
+import com.letscooee.utils.Constants;
+import com.letscooee.utils.LocalStorageHelper;
+
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@link PendingTask} table bounded. It deletes the dead tasks (which reached the maximum attempts),
+ * the tasks older than the TTL of their {@link PendingTaskType} and then evicts the lowest priority/oldest
+ * tasks until the table fits in the maximum row count and the maximum total payload size. The database is
+ * also vacuumed periodically to give the freed space back.
+ *
+ * @since 1.3.12
+ */
+public class PendingTaskRetention {
+
+    private static final int DEFAULT_MAX_ROWS = 5000;
+    private static final long DEFAULT_MAX_PAYLOAD_BYTES = 5 * 1024 * 1024;
+    private static final long VACUUM_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * Number of tasks evicted in one go while reducing the total payload size.
+     */
+    private static final int EVICTION_CHUNK_SIZE = 100;
+
+    private final Context context;
+    private final CooeeDatabase database;
+    private final Map<PendingTaskType, Long> ttlMillis = new EnumMap<>(PendingTaskType.class);
+
+    private int maxRows = DEFAULT_MAX_ROWS;
+    private long maxPayloadBytes = DEFAULT_MAX_PAYLOAD_BYTES;
+
+    public PendingTaskRetention(Context context, CooeeDatabase database) {
+        this.context = context;
+        this.database = database;
+
+        ttlMillis.put(PendingTaskType.API_SEND_EVENT, TimeUnit.DAYS.toMillis(7));
+        ttlMillis.put(PendingTaskType.API_SESSION_CONCLUDE, TimeUnit.DAYS.toMillis(7));
+        ttlMillis.put(PendingTaskType.API_UPDATE_PROFILE, TimeUnit.DAYS.toMillis(30));
+        ttlMillis.put(PendingTaskType.API_DEVICE_PROPERTY, TimeUnit.DAYS.toMillis(30));
+        ttlMillis.put(PendingTaskType.API_UPDATE_PUSH_TOKEN, TimeUnit.DAYS.toMillis(30));
+    }
+
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    public void setMaxPayloadBytes(long maxPayloadBytes) {
+        this.maxPayloadBytes = maxPayloadBytes;
+    }
+
+    /**
+     * Change the time to live of the tasks of the given type.
+     *
+     * @param type      The type of tasks.
+     * @param ttlMillis The time to live in milliseconds after the creation of the task.
+     */
+    public synchronized void setTTL(@NonNull PendingTaskType type, long ttlMillis) {
+        this.ttlMillis.put(type, ttlMillis);
+    }
+
+    /**
+     * Apply all the retention rules and vacuum the database if it's due.
+     *
+     * @return Number of tasks dropped in this run.
+     */
+    public synchronized int enforce() {
+        PendingTaskDAO dao = database.pendingTaskDAO();
+        long now = new Date().getTime();
+
+        int dropped = dao.deleteDead();
+
+        for (Map.Entry<PendingTaskType, Long> entry : ttlMillis.entrySet()) {
+            dropped += dao.deleteExpired(entry.getKey().name(), now - entry.getValue());
+        }
+
+        int excessRows = dao.count() - maxRows;
+        if (excessRows > 0) {
+            dropped += dao.evict(excessRows);
+        }
+
+        while (dao.totalPayloadBytes() > maxPayloadBytes) {
+            int evicted = dao.evict(EVICTION_CHUNK_SIZE);
+            dropped += evicted;
+
+            if (evicted == 0) {
+                break;
+            }
+        }
+
+        if (dropped > 0) {
+            this.reportDropped(dropped);
+        }
+
+        this.vacuumIfDue(now);
+        return dropped;
+    }
+
+    /**
+     * Total number of tasks dropped by the retention so far.
+     *
+     * @return the dropped count.
+     */
+    public long getTotalDropped() {
+        return LocalStorageHelper.getLong(context, Constants.STORAGE_DROPPED_TASKS, 0);
+    }
+
+    private void reportDropped(int dropped) {
+        Log.i(Constants.TAG, "Dropped " + dropped + " pending tasks");
+        LocalStorageHelper.putLong(context, Constants.STORAGE_DROPPED_TASKS, getTotalDropped() + dropped);
+    }
+
+    private void vacuumIfDue(long now) {
+        long lastVacuum = LocalStorageHelper.getLong(context, Constants.STORAGE_LAST_VACUUM_TIME, 0);
+        if (now - lastVacuum < VACUUM_INTERVAL_MILLIS) {
+            return;
+        }
+
+        Log.v(Constants.TAG, "Vacuuming database");
+        database.getOpenHelper().getWritableDatabase().execSQL("VACUUM");
+        LocalStorageHelper.putLong(context, Constants.STORAGE_LAST_VACUUM_TIME, now);
+    }
+}
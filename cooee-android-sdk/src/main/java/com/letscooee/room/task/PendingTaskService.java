@@ -3,18 +3,25 @@ package com.letscooee.room.task;
 import android.content.Context;
 import android.util.Log;
 import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
 import com.google.gson.Gson;
 import com.letscooee.ContextAware;
 import com.letscooee.models.Event;
 import com.letscooee.room.CooeeDatabase;
 import com.letscooee.room.task.processor.*;
-import com.letscooee.schedular.CooeeJobUtils;
-import com.letscooee.schedular.job.PendingTaskJob;
+import com.letscooee.schedular.SyncScheduler;
+import com.letscooee.schedular.worker.PendingTaskWorker;
+import com.letscooee.task.CooeeExecutors;
+import com.letscooee.utils.Closure;
 import com.letscooee.utils.Constants;
+import com.letscooee.utils.ManifestReader;
 import com.letscooee.utils.SentryHelper;
 import com.letscooee.utils.Timer;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * A singleton service for utility over {@link PendingTask}.
@@ -25,26 +32,83 @@ import java.util.*;
 @RestrictTo(RestrictTo.Scope.LIBRARY)
 public class PendingTaskService extends ContextAware {
 
-    private static final ArrayList<PendingTaskProcessor> PROCESSORS = new ArrayList<>();
+    /**
+     * Maximum number of events to be sent in a single bulk request.
+     */
+    @VisibleForTesting
+    static final int EVENT_BATCH_MAX_SIZE = 50;
+
+    /**
+     * Maximum time for which a queued event waits for other events before the batch is sent.
+     */
+    private static final long EVENT_BATCH_MAX_AGE_MILLIS = 10 * 1000;
+
+    /**
+     * Default number of pending tasks to load in the memory at once.
+     */
+    private static final int DEFAULT_FETCH_PAGE_SIZE = 100;
+
+    /**
+     * Number of legacy plain JSON tasks to compact on each job run.
+     */
+    private static final int LEGACY_COMPACTION_CHUNK_SIZE = 200;
+
     private static final Set<Long> CURRENT_PROCESSING_TASKS = Collections.synchronizedSet(new HashSet<>());
 
     private final SentryHelper sentryHelper;
     private final CooeeDatabase database;
+    private final PendingTaskProcessorRegistry processorRegistry = new PendingTaskProcessorRegistry();
     private final Gson gson = new Gson();
+    private final boolean eventBatchingEnabled;
+    private final List<PendingTask> eventBatch = new ArrayList<>();
+    private final Timer eventBatchTimer = new Timer();
+    private final PendingTaskWriter pendingTaskWriter;
+    private final PendingTaskRetention retention;
+
+    private int fetchPageSize = DEFAULT_FETCH_PAGE_SIZE;
+    private long eventBatchMaxAgeMillis = EVENT_BATCH_MAX_AGE_MILLIS;
+    private boolean concurrentProcessing = true;
 
     public PendingTaskService(Context context, SentryHelper sentryHelper) {
         super(context);
         this.database = CooeeDatabase.getInstance(this.context);
         this.sentryHelper = sentryHelper;
+        this.eventBatchingEnabled = ManifestReader.getInstance(this.context).isEventBatchingEnabled();
+        this.retention = new PendingTaskRetention(this.context, this.database);
+        // The sync stops once the backlog is drained, so make sure it is scheduled for the new tasks (once per
+        // transaction instead of once per task)
+        this.pendingTaskWriter = new PendingTaskWriter(this.database.pendingTaskDAO(),
+                CooeeExecutors.getInstance().databaseWriterExecutor(), CooeeExecutors.getInstance().scheduler(),
+                sentryHelper, () -> SyncScheduler.ensureScheduled(this.context));
         this.instantiateProcessors(context);
     }
 
     private void instantiateProcessors(Context context) {
-        PROCESSORS.add(new EventTaskProcessor(context));
-        PROCESSORS.add(new ProfileTaskProcessor(context));
-        PROCESSORS.add(new PushTokenTaskProcessor(context));
-        PROCESSORS.add(new SessionConcludeTaskProcessor(context));
-        PROCESSORS.add(new DevicePropTaskProcessor(context));
+        processorRegistry.registerIfAbsent(PendingTaskType.API_SEND_EVENT, new EventTaskProcessor(context));
+        processorRegistry.registerIfAbsent(PendingTaskType.API_UPDATE_PROFILE, new ProfileTaskProcessor(context));
+        processorRegistry.registerIfAbsent(PendingTaskType.API_UPDATE_PUSH_TOKEN, new PushTokenTaskProcessor(context));
+        processorRegistry.registerIfAbsent(PendingTaskType.API_SESSION_CONCLUDE,
+                new SessionConcludeTaskProcessor(context));
+        processorRegistry.registerIfAbsent(PendingTaskType.API_DEVICE_PROPERTY, new DevicePropTaskProcessor(context));
+    }
+
+    /**
+     * Retention rules (maximum rows, maximum payload size & TTL) of the pending tasks.
+     *
+     * @return the retention.
+     */
+    public PendingTaskRetention getRetention() {
+        return retention;
+    }
+
+    /**
+     * Registry of the processors used to process the tasks. Internal to the SDK (like this service), it is not
+     * available to the host apps; other modules of the SDK and the tests can replace a processor here.
+     *
+     * @return the registry.
+     */
+    public PendingTaskProcessorRegistry getProcessorRegistry() {
+        return processorRegistry;
     }
 
     public PendingTask newTask(Event event) {
@@ -57,7 +121,41 @@ public class PendingTaskService extends ContextAware {
     }
 
     /**
-     * Create a new pending task to be processed later by {@link PendingTaskJob}
+     * Queue a new {@link PendingTaskType#API_SEND_EVENT} task to be stored in background without any disk I/O
+     * on the calling thread. See {@link #newTaskAsync(Map, PendingTaskType, Closure)}.
+     *
+     * @param event    The event to store.
+     * @param onStored Callback invoked on the writer thread once the task is stored.
+     */
+    public void newTaskAsync(Event event, Closure<PendingTask> onStored) {
+        // Copy the properties as the caller may still change them before they are serialised
+        event.setProperties(new HashMap<>(event.getProperties()));
+        pendingTaskWriter.enqueue(event, PendingTaskType.API_SEND_EVENT, onStored);
+    }
+
+    /**
+     * Queue a new pending task to be stored in background (in batched transactions) without any disk I/O
+     * on the calling thread. The task is processed later by {@link PendingTaskWorker} and
+     * {@link PendingTaskProcessor}.
+     *
+     * @param data     The data to be stored for later processing.
+     * @param taskType The type of pending task which can be processed by {@link PendingTaskProcessor}.
+     * @param onStored Callback invoked on the writer thread once the task is stored.
+     */
+    public void newTaskAsync(Map<String, Object> data, PendingTaskType taskType, Closure<PendingTask> onStored) {
+        pendingTaskWriter.enqueue(new HashMap<>(data), taskType, onStored);
+    }
+
+    /**
+     * Store all the tasks queued via {@code newTaskAsync} in background right away. This should be called when
+     * the app is going in the background to make sure nothing is lost if the process is killed.
+     */
+    public void flushPendingWrites() {
+        pendingTaskWriter.flushAsync();
+    }
+
+    /**
+     * Create a new pending task to be processed later by {@link PendingTaskWorker}
      * and {@link PendingTaskProcessor}.
      *
      * @param data     The raw JSON data to be stored for later processing.
@@ -67,8 +165,8 @@ public class PendingTaskService extends ContextAware {
     public PendingTask newTask(String data, PendingTaskType taskType) {
         PendingTask task = new PendingTask();
         task.attempts = 0;
-        task.data = data;
         task.type = taskType;
+        PendingTaskCodec.encode(task, data);
         task.dateCreated = new Date().getTime();
 
         task.id = this.database.pendingTaskDAO().insert(task);
@@ -78,33 +176,288 @@ public class PendingTaskService extends ContextAware {
     }
 
     /**
-     * Process the given list of {@link PendingTask} via {@link PendingTaskProcessor}.
+     * Change the number of pending tasks which are loaded in the memory at once while processing.
+     *
+     * @param fetchPageSize The page size. Should be greater than 0.
+     */
+    public void setFetchPageSize(int fetchPageSize) {
+        if (fetchPageSize <= 0) {
+            throw new IllegalArgumentException("fetchPageSize should be greater than 0");
+        }
+
+        this.fetchPageSize = fetchPageSize;
+    }
+
+    /**
+     * Fetch the next page of due pending tasks (whose {@link PendingTask#nextAttemptAt} has passed) of the given
+     * type ordered by {@link PendingTask#dateCreated}.
      *
-     * @param pendingTasks   The list of tasks.
-     * @param pendingTaskJob instance of {@link PendingTaskJob}
+     * @param type  The type of the tasks to fetch.
+     * @param after The last task of the previous page or <code>null</code> to fetch the first page.
+     * @return The page of tasks. Would be smaller than the page size if it is the last page.
+     */
+    public List<PendingTask> fetchPendingPage(PendingTaskType type, PendingTask after) {
+        long afterDateCreated = after == null ? Long.MIN_VALUE : after.dateCreated;
+        long afterId = after == null ? Long.MIN_VALUE : after.id;
+
+        return this.database.pendingTaskDAO().fetchPendingPageOfType(type.name(), afterDateCreated, afterId,
+                new Date().getTime(), fetchPageSize);
+    }
+
+    /**
+     * Stream all the pending tasks page by page (see {@link #fetchPendingPage(PendingTaskType, PendingTask)}) and
+     * process them via {@link PendingTaskProcessor} so that only a single page per type is held in memory at a
+     * time. Each {@link PendingTaskType} is paged separately and the types are processed in parallel (if enabled)
+     * on {@link CooeeExecutors#pendingTaskExecutor()} so that a slow task of one type does not block the others.
+     * Otherwise the types are processed one after another in the order of their priority. The
+     * {@link PendingTaskRetention} rules are applied before processing.
      */
-    public void processTasks(List<PendingTask> pendingTasks, PendingTaskJob pendingTaskJob) {
-        if (pendingTasks == null || pendingTasks.isEmpty()) {
+    public void processPendingTasks() {
+        try {
+            retention.enforce();
+            this.compactLegacyTasks();
+        } catch (Throwable t) {
+            this.sentryHelper.captureException(t);
+        }
+
+        List<PendingTaskType> types = new ArrayList<>(Arrays.asList(PendingTaskType.values()));
+        Collections.sort(types, (a, b) -> Integer.compare(a.getPriority(), b.getPriority()));
+
+        if (!concurrentProcessing) {
+            for (PendingTaskType type : types) {
+                this.processPendingTasks(type);
+            }
+
             return;
         }
 
-        for (PendingTask pendingTask : pendingTasks) {
-            this.processTask(pendingTask);
+        List<Future<?>> futures = new ArrayList<>(types.size());
+        ExecutorService executor = CooeeExecutors.getInstance().pendingTaskExecutor();
+
+        for (PendingTaskType type : types) {
+            futures.add(executor.submit(() -> this.processPendingTasks(type)));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                this.sentryHelper.captureException(e.getCause());
+            }
         }
-        reScheduleJob(pendingTaskJob);
     }
 
     /**
-     * Stops the current running job and reschedule job with the help of
-     * {@link CooeeJobUtils}
+     * Process all the due pending tasks of the given type page by page in the order of their creation.
      *
-     * @param pendingTaskJob is instance of {@link PendingTaskJob}
+     * @param type The type of the tasks to process.
      */
-    private void reScheduleJob(PendingTaskJob pendingTaskJob) {
-        pendingTaskJob.jobFinished(pendingTaskJob.getJobParameters(), false);
+    private void processPendingTasks(PendingTaskType type) {
+        PendingTask lastTask = null;
+        List<PendingTask> page;
 
-        // Add delay to let previous job get fully finished
-        new Timer().schedule(() -> CooeeJobUtils.schedulePendingTaskJob(context), 2000);
+        do {
+            page = this.fetchPendingPage(type, lastTask);
+            if (page.isEmpty()) {
+                break;
+            }
+
+            this.processPartition(type, page);
+            lastTask = page.get(page.size() - 1);
+        } while (page.size() >= fetchPageSize);
+    }
+
+    /**
+     * @return Number of the tasks which are yet to be processed.
+     */
+    public int getBacklogSize() {
+        return this.database.pendingTaskDAO().countPending();
+    }
+
+    /**
+     * @return Time (in millis) when the first of the remaining tasks is due or <code>0</code> if there is none.
+     */
+    public long getEarliestNextAttemptAt() {
+        Long nextAttemptAt = this.database.pendingTaskDAO().earliestNextAttemptAt();
+        return nextAttemptAt == null ? 0 : nextAttemptAt;
+    }
+
+    /**
+     * Convert a chunk of the tasks stored in plain JSON (before {@link PendingTaskCodec} was introduced) to the
+     * compact format. Called on each job run so the existing rows get migrated gradually.
+     */
+    private void compactLegacyTasks() {
+        PendingTaskDAO dao = this.database.pendingTaskDAO();
+        List<PendingTask> tasks = dao.fetchUncompacted(PendingTaskCodec.MIN_COMPRESS_LENGTH,
+                LEGACY_COMPACTION_CHUNK_SIZE);
+
+        for (PendingTask task : tasks) {
+            PendingTaskCodec.encode(task, task.data);
+            dao.updateStoredFormat(task.id, task.data, task.payload, task.format);
+        }
+
+        if (!tasks.isEmpty()) {
+            Log.v(Constants.TAG, "Compacted " + tasks.size() + " tasks");
+        }
+    }
+
+    /**
+     * Enable or disable processing the tasks of different {@link PendingTaskType} in parallel.
+     *
+     * @param concurrentProcessing <code>true</code> to process the types in parallel.
+     */
+    public void setConcurrentProcessing(boolean concurrentProcessing) {
+        this.concurrentProcessing = concurrentProcessing;
+    }
+
+    /**
+     * Process the tasks of a single {@link PendingTaskType} sequentially. The event tasks are sent in bulk.
+     *
+     * @param type  The type of all the given tasks.
+     * @param tasks The tasks to process.
+     */
+    private void processPartition(PendingTaskType type, List<PendingTask> tasks) {
+        if (type != PendingTaskType.API_SEND_EVENT) {
+            for (PendingTask pendingTask : tasks) {
+                this.processTask(pendingTask);
+            }
+
+            return;
+        }
+
+        for (int i = 0; i < tasks.size(); i += EVENT_BATCH_MAX_SIZE) {
+            int end = Math.min(i + EVENT_BATCH_MAX_SIZE, tasks.size());
+            this.processBatch(new ArrayList<>(tasks.subList(i, end)));
+        }
+    }
+
+    /**
+     * Check if the newly created event tasks should be coalesced in a bulk request instead of being
+     * attempted individually.
+     *
+     * @return <code>true</code> if event batching is enabled.
+     */
+    public boolean isEventBatchingEnabled() {
+        return eventBatchingEnabled;
+    }
+
+    /**
+     * Queue a newly created {@link PendingTaskType#API_SEND_EVENT} task to be sent with other events in a single
+     * bulk request. The queued batch is sent once it reaches {@link #EVENT_BATCH_MAX_SIZE} or when the oldest
+     * queued task waits for {@link #EVENT_BATCH_MAX_AGE_MILLIS}, whichever happens first. The queued task is held as
+     * being processed so that a run of {@link PendingTaskWorker} does not send it meanwhile.
+     *
+     * @param pendingTask The event task to queue.
+     */
+    public void queueForBatch(PendingTask pendingTask) {
+        if (!CURRENT_PROCESSING_TASKS.add(pendingTask.id)) {
+            Log.d(Constants.TAG, "Already processing " + pendingTask);
+            return;
+        }
+
+        List<PendingTask> readyBatch = null;
+
+        synchronized (eventBatch) {
+            eventBatch.add(pendingTask);
+
+            if (eventBatch.size() >= EVENT_BATCH_MAX_SIZE) {
+                readyBatch = drainEventBatch();
+            } else if (eventBatch.size() == 1) {
+                // The timers share a small scheduler, hand over the network call
+                eventBatchTimer.schedule(() -> CooeeExecutors.getInstance().networkExecutor()
+                        .execute(this::flushEventBatch), eventBatchMaxAgeMillis);
+            }
+        }
+
+        if (readyBatch != null) {
+            List<PendingTask> batch = readyBatch;
+            CooeeExecutors.getInstance().networkExecutor().execute(() -> this.processReservedBatch(batch));
+        }
+    }
+
+    @VisibleForTesting
+    void setEventBatchMaxAge(long eventBatchMaxAgeMillis) {
+        this.eventBatchMaxAgeMillis = eventBatchMaxAgeMillis;
+    }
+
+    /**
+     * @return <code>true</code> if there are event tasks queued via {@link #queueForBatch(PendingTask)} which are
+     * not yet sent.
+     */
+    public boolean hasQueuedEvents() {
+        synchronized (eventBatch) {
+            return !eventBatch.isEmpty();
+        }
+    }
+
+    /**
+     * Send all the queued event tasks immediately. Makes a synchronous HTTP call so must not be called on the main
+     * thread or on {@link CooeeExecutors#scheduler()}.
+     */
+    public void flushEventBatch() {
+        List<PendingTask> batch;
+        synchronized (eventBatch) {
+            batch = drainEventBatch();
+        }
+
+        this.processReservedBatch(batch);
+    }
+
+    private List<PendingTask> drainEventBatch() {
+        List<PendingTask> batch = new ArrayList<>(eventBatch);
+        eventBatch.clear();
+        return batch;
+    }
+
+    /**
+     * Process the given {@link PendingTask}s of the same type as a group via {@link BatchPendingTaskProcessor}.
+     * If the processor for the type can not process in batch, each task is processed individually.
+     *
+     * @param pendingTasks The tasks to process. All should be of the same {@link PendingTaskType}.
+     */
+    public void processBatch(List<PendingTask> pendingTasks) {
+        List<PendingTask> tasks = new ArrayList<>(pendingTasks.size());
+        for (PendingTask pendingTask : pendingTasks) {
+            if (CURRENT_PROCESSING_TASKS.add(pendingTask.id)) {
+                tasks.add(pendingTask);
+            } else {
+                Log.d(Constants.TAG, "Already processing " + pendingTask);
+            }
+        }
+
+        this.processReservedBatch(tasks);
+    }
+
+    /**
+     * Process the given tasks which are already held in {@link #CURRENT_PROCESSING_TASKS} (see
+     * {@link #processBatch(List)}) and release them.
+     */
+    private void processReservedBatch(List<PendingTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        try {
+            PendingTaskProcessor taskProcessor = processorRegistry.get(tasks.get(0));
+
+            if (tasks.size() > 1 && taskProcessor instanceof BatchPendingTaskProcessor) {
+                ((BatchPendingTaskProcessor) taskProcessor).processBatch(tasks);
+            } else if (taskProcessor != null) {
+                for (PendingTask pendingTask : tasks) {
+                    taskProcessor.process(pendingTask);
+                }
+            }
+        } catch (Throwable t) {
+            this.sentryHelper.captureException(t);
+            // Suppress the exception to prevent app crash. It's already logged to Sentry
+        } finally {
+            for (PendingTask pendingTask : tasks) {
+                CURRENT_PROCESSING_TASKS.remove(pendingTask.id);
+            }
+        }
     }
 
     /**
@@ -119,25 +472,24 @@ public class PendingTaskService extends ContextAware {
             throw new IllegalArgumentException("pendingTask can't be null");
         }
 
-        if (CURRENT_PROCESSING_TASKS.contains(pendingTask.id)) {
-            Log.d(Constants.TAG, "Already processing " + pendingTask);
+        PendingTaskProcessor taskProcessor = processorRegistry.get(pendingTask);
+        if (taskProcessor == null) {
+            Log.w(Constants.TAG, "No processor registered for " + pendingTask);
             return;
         }
 
-        CURRENT_PROCESSING_TASKS.add(pendingTask.id);
-
-        for (PendingTaskProcessor taskProcessor : PROCESSORS) {
-            if (taskProcessor.canProcess(pendingTask)) {
+        if (!CURRENT_PROCESSING_TASKS.add(pendingTask.id)) {
+            Log.d(Constants.TAG, "Already processing " + pendingTask);
+            return;
+        }
 
-                try {
-                    taskProcessor.process(pendingTask);
-                } catch (Throwable t) {
-                    this.sentryHelper.captureException(t);
-                    // Suppress the exception to prevent app crash. It's already logged to Sentry
-                } finally {
-                    CURRENT_PROCESSING_TASKS.remove(pendingTask.id);
-                }
-            }
+        try {
+            taskProcessor.process(pendingTask);
+        } catch (Throwable t) {
+            this.sentryHelper.captureException(t);
+            // Suppress the exception to prevent app crash. It's already logged to Sentry
+        } finally {
+            CURRENT_PROCESSING_TASKS.remove(pendingTask.id);
         }
     }
 }
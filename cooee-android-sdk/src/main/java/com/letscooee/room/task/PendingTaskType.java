@@ -6,9 +6,25 @@ package com.letscooee.room.task;
  */
 public enum PendingTaskType {
 
-    API_SEND_EVENT,
-    API_UPDATE_PROFILE,
-    API_SESSION_CONCLUDE,
-    API_UPDATE_PUSH_TOKEN,
-    API_DEVICE_PROPERTY,
-}
\ No newline at end of file
+    API_SEND_EVENT(3),
+    API_UPDATE_PROFILE(1),
+    API_SESSION_CONCLUDE(4),
+    API_UPDATE_PUSH_TOKEN(0),
+    API_DEVICE_PROPERTY(2);
+
+    private final int priority;
+
+    PendingTaskType(int priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Priority of the type while fetching the pending tasks. Lower value is processed first and should match
+     * {@link PendingTaskDAO#PRIORITY}.
+     *
+     * @return the priority.
+     */
+    public int getPriority() {
+        return priority;
+    }
+}
@@ -0,0 +1,217 @@
+package com.letscooee.room.task;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.google.gson.Gson;
+import com.letscooee.utils.Closure;
+import com.letscooee.utils.Constants;
+import com.letscooee.utils.SentryHelper;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A write-behind queue in front of the {@link PendingTask} table. New tasks are accepted in O(1) in a lock-free
+ * in-memory queue without any disk I/O on the caller's thread and are written in batched transactions on a
+ * background writer.
+ *
+ * @since 1.3.12
+ */
+class PendingTaskWriter {
+
+    /**
+     * Maximum number of tasks to insert in a single transaction.
+     */
+    private static final int MAX_TRANSACTION_SIZE = 100;
+
+    /**
+     * Number of times a task is tried to be written before it is dropped.
+     */
+    @VisibleForTesting
+    static final int MAX_WRITE_ATTEMPTS = 3;
+
+    /**
+     * Delay before the tasks of a failed write are written again.
+     */
+    private static final long RETRY_DELAY_MILLIS = 5 * 1000;
+
+    private final ConcurrentLinkedDeque<Entry> queue = new ConcurrentLinkedDeque<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Gson gson = new Gson();
+
+    private final PendingTaskDAO pendingTaskDAO;
+    private final Executor writerExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final SentryHelper sentryHelper;
+    private final Runnable onWritten;
+
+    /**
+     * @param onWritten Invoked on the writer thread once after every transaction which stored tasks.
+     */
+    PendingTaskWriter(PendingTaskDAO pendingTaskDAO, Executor writerExecutor, ScheduledExecutorService scheduler,
+                      SentryHelper sentryHelper, Runnable onWritten) {
+        this.pendingTaskDAO = pendingTaskDAO;
+        this.writerExecutor = writerExecutor;
+        this.scheduler = scheduler;
+        this.sentryHelper = sentryHelper;
+        this.onWritten = onWritten;
+    }
+
+    /**
+     * Queue a new task to be written. The payload is serialised on the writer thread.
+     *
+     * @param payload  The data of the task. Either the raw JSON string or an object to serialise.
+     * @param type     The type of the task.
+     * @param onStored Optional callback invoked on the writer thread once the task is stored.
+     */
+    void enqueue(@NonNull Object payload, @NonNull PendingTaskType type, @Nullable Closure<PendingTask> onStored) {
+        queue.offer(new Entry(payload, type, new Date().getTime(), onStored));
+        this.scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                writerExecutor.execute(this::flushScheduled);
+            } catch (RejectedExecutionException e) {
+                // Let the next task (or the flush on app background) try again instead of never flushing
+                flushScheduled.set(false);
+                Log.e(Constants.TAG, "Unable to schedule the write of pending tasks", e);
+            }
+        }
+    }
+
+    private void flushScheduled() {
+        // Reset before draining so that the tasks queued while writing schedule another flush
+        flushScheduled.set(false);
+        this.flush();
+    }
+
+    /**
+     * Write the queued tasks in background. Does nothing if a write is already scheduled.
+     */
+    void flushAsync() {
+        this.scheduleFlush();
+    }
+
+    /**
+     * Write all the queued tasks on the calling thread. If a write fails, its tasks are put back at the head of the
+     * queue and written again after a delay (till {@link #MAX_WRITE_ATTEMPTS}).
+     */
+    void flush() {
+        List<Entry> entries = new ArrayList<>();
+        Entry entry;
+
+        while ((entry = queue.poll()) != null) {
+            entries.add(entry);
+
+            if (entries.size() >= MAX_TRANSACTION_SIZE) {
+                if (!this.write(entries)) {
+                    return;
+                }
+                entries = new ArrayList<>();
+            }
+        }
+
+        if (!entries.isEmpty()) {
+            this.write(entries);
+        }
+    }
+
+    /**
+     * @return <code>false</code> if the tasks could not be written.
+     */
+    private boolean write(List<Entry> entries) {
+        List<PendingTask> tasks = new ArrayList<>(entries.size());
+        List<Long> ids;
+
+        try {
+            for (Entry entry : entries) {
+                tasks.add(entry.toTask(gson));
+            }
+
+            ids = pendingTaskDAO.insertAll(tasks);
+        } catch (Throwable t) {
+            this.sentryHelper.captureException(t);
+            this.retryLater(entries);
+            return false;
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            PendingTask task = tasks.get(i);
+            task.id = ids.get(i);
+            Log.v(Constants.TAG, "Created " + task);
+
+            Closure<PendingTask> onStored = entries.get(i).onStored;
+            if (onStored != null) {
+                onStored.call(task);
+            }
+        }
+
+        onWritten.run();
+        return true;
+    }
+
+    private void retryLater(List<Entry> entries) {
+        // In the reverse order to keep the original order at the head of the queue
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            Entry entry = entries.get(i);
+
+            if (++entry.failedWrites >= MAX_WRITE_ATTEMPTS) {
+                Log.e(Constants.TAG, "Dropping a " + entry.type + " task after " + entry.failedWrites
+                        + " failed writes");
+                continue;
+            }
+
+            queue.offerFirst(entry);
+        }
+
+        try {
+            scheduler.schedule(this::scheduleFlush, RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            Log.e(Constants.TAG, "Unable to schedule the write of pending tasks", e);
+        }
+    }
+
+    @VisibleForTesting
+    int getQueuedCount() {
+        return queue.size();
+    }
+
+    private static class Entry {
+
+        private final Object payload;
+        private final PendingTaskType type;
+        private final long dateCreated;
+        private final Closure<PendingTask> onStored;
+        private int failedWrites;
+
+        Entry(Object payload, PendingTaskType type, long dateCreated, Closure<PendingTask> onStored) {
+            this.payload = payload;
+            this.type = type;
+            this.dateCreated = dateCreated;
+            this.onStored = onStored;
+        }
+
+        PendingTask toTask(Gson gson) {
+            PendingTask task = new PendingTask();
+            task.attempts = 0;
+            String json = payload instanceof String ? (String) payload : gson.toJson(payload);
+            PendingTaskCodec.encode(task, json);
+            task.type = type;
+            task.dateCreated = dateCreated;
+            return task;
+        }
+    }
+}
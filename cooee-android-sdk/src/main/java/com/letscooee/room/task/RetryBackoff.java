@@ -0,0 +1,49 @@
+package com.letscooee.room.task;
+
+import java.util.Random;
+
+/**
+ * Computes the time after which a failed {@link PendingTask} can be reattempted. The delay grows exponentially
+ * with the number of attempts and is randomised (equal jitter) so that the devices do not retry in lockstep
+ * when the backend is degraded.
+ *
+ * @since 1.3.12
+ */
+public class RetryBackoff {
+
+    static final long BASE_DELAY_MILLIS = 30 * 1000;
+    static final long MAX_DELAY_MILLIS = 6 * 60 * 60 * 1000;
+
+    private static final Random RANDOM = new Random();
+
+    private RetryBackoff() {
+    }
+
+    /**
+     * Get the delay before the next attempt of a task which has failed <code>attempts</code> times.
+     *
+     * @param attempts Number of failed attempts (at least 1).
+     * @param random   Source of the jitter.
+     * @return The delay in milliseconds between half and the full exponential delay.
+     */
+    static long getDelayMillis(int attempts, Random random) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        long delay = Math.min(MAX_DELAY_MILLIS, BASE_DELAY_MILLIS << exponent);
+        long half = delay / 2;
+
+        return half + (long) (random.nextDouble() * half);
+    }
+
+    /**
+     * Get the time at which a task which has failed <code>attempts</code> times should be attempted next.
+     *
+     * @param attempts         Number of failed attempts (at least 1).
+     * @param retryAfterMillis Minimum delay asked by the server via <code>Retry-After</code> header or 0.
+     * @param now              Time of the last attempt.
+     * @return The next attempt time in milliseconds since epoch.
+     */
+    public static long getNextAttemptAt(int attempts, long retryAfterMillis, long now) {
+        long delay = Math.max(getDelayMillis(attempts, RANDOM), retryAfterMillis);
+        return now + delay;
+    }
+}
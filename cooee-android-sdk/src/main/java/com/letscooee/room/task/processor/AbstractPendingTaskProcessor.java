@@ -7,9 +7,13 @@ import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
 import com.letscooee.room.CooeeDatabase;
 import com.letscooee.room.task.PendingTask;
+import com.letscooee.room.task.PendingTaskCodec;
+import com.letscooee.room.task.RetryBackoff;
+import com.letscooee.schedular.SyncScheduler;
 import com.letscooee.utils.Constants;
 
 import java.util.Date;
+import java.util.List;
 
 /**
  * An abstract layer to process the {@link PendingTask} with some common useful methods.
@@ -36,7 +40,7 @@ public abstract class AbstractPendingTaskProcessor<T> implements PendingTaskProc
      * @return Deserialized Java object of given type {@link T}.
      */
     T deserialize(PendingTask task) throws JsonParseException {
-        return gson.fromJson(task.data, new TypeToken<T>() {
+        return gson.fromJson(PendingTaskCodec.decode(task), new TypeToken<T>() {
         }.getType());
     }
 
@@ -50,16 +54,62 @@ public abstract class AbstractPendingTaskProcessor<T> implements PendingTaskProc
         this.appDatabase.pendingTaskDAO().delete(task);
     }
 
+    /**
+     * Delete the given tasks which were successfully executed/completed as a group.
+     *
+     * @param tasks Tasks to delete.
+     */
+    void deleteTasks(List<PendingTask> tasks) {
+        Log.v(Constants.TAG, "Deleting " + tasks.size() + " tasks");
+        this.appDatabase.pendingTaskDAO().delete(tasks);
+    }
+
     /**
      * If a task execution fails, update it {@link PendingTask#attempts} & {@link PendingTask#lastAttempted}.
      *
      * @param task Task to update.
      */
-    void updateAttempted(PendingTask task) {
-        task.attempts = task.attempts + 1;
-        task.lastAttempted = new Date().getTime();
+    protected void updateAttempted(PendingTask task) {
+        this.updateAttempted(task, 0);
+    }
+
+    /**
+     * If a task execution fails, update it {@link PendingTask#attempts}, {@link PendingTask#lastAttempted} &
+     * back off the {@link PendingTask#nextAttemptAt} via {@link RetryBackoff}. A sync is scheduled (if not
+     * already) to retry it.
+     *
+     * @param task             Task to update.
+     * @param retryAfterMillis Minimum delay asked by the server before retrying or 0.
+     */
+    protected void updateAttempted(PendingTask task, long retryAfterMillis) {
+        markAttempted(task, retryAfterMillis, new Date().getTime());
         appDatabase.pendingTaskDAO().updateByObject(task);
 
         Log.v(Constants.TAG, "" + task + " attempted " + task.attempts);
+        SyncScheduler.ensureScheduled(context);
+    }
+
+    /**
+     * If a group execution fails, update {@link PendingTask#attempts}, {@link PendingTask#lastAttempted} &
+     * {@link PendingTask#nextAttemptAt} of all the given tasks.
+     *
+     * @param tasks            Tasks to update.
+     * @param retryAfterMillis Minimum delay asked by the server before retrying or 0.
+     */
+    protected void updateAttempted(List<PendingTask> tasks, long retryAfterMillis) {
+        long now = new Date().getTime();
+        for (PendingTask task : tasks) {
+            markAttempted(task, retryAfterMillis, now);
+        }
+
+        appDatabase.pendingTaskDAO().updateByObjects(tasks);
+        Log.v(Constants.TAG, "" + tasks.size() + " tasks attempted");
+        SyncScheduler.ensureScheduled(context);
+    }
+
+    private void markAttempted(PendingTask task, long retryAfterMillis, long now) {
+        task.attempts = task.attempts + 1;
+        task.lastAttempted = now;
+        task.nextAttemptAt = RetryBackoff.getNextAttemptAt(task.attempts, retryAfterMillis, now);
     }
 }
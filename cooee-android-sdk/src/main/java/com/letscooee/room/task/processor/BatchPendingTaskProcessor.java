@@ -0,0 +1,24 @@
+package com.letscooee.room.task.processor;
+
+import androidx.annotation.NonNull;
+
+import com.letscooee.room.task.PendingTask;
+
+import java.util.List;
+
+/**
+ * Skeleton of a {@link PendingTask} processor which can process multiple tasks of the same type
+ * in a single go.
+ *
+ * @since 1.3.12
+ */
+public interface BatchPendingTaskProcessor extends PendingTaskProcessor {
+
+    /**
+     * Process the given tasks as a group. Either all the tasks get completed or all of them are
+     * marked as attempted.
+     *
+     * @param tasks Tasks to process. All of them must be processable by this processor.
+     */
+    void processBatch(@NonNull List<PendingTask> tasks);
+}
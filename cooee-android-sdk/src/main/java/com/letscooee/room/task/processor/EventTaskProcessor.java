@@ -1,13 +1,19 @@
 package com.letscooee.room.task.processor;
 
 import android.content.Context;
+import android.util.Log;
 
 import androidx.annotation.NonNull;
 
 import com.letscooee.exceptions.HttpRequestFailedException;
 import com.letscooee.models.Event;
 import com.letscooee.room.task.PendingTask;
+import com.letscooee.room.task.PendingTaskCodec;
 import com.letscooee.room.task.PendingTaskType;
+import com.letscooee.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Process a {@link PendingTask} which is related to pushing an {@link Event} to API.
@@ -15,20 +21,47 @@ import com.letscooee.room.task.PendingTaskType;
  * @author Shashank Agarwal
  * @since 0.3.0
  */
-public class EventTaskProcessor extends HttpTaskProcessor<Event> {
+public class EventTaskProcessor extends HttpTaskProcessor<Event> implements BatchPendingTaskProcessor {
 
     public EventTaskProcessor(Context context) {
         super(context);
     }
 
     Event deserialize(PendingTask task) {
-        return gson.fromJson(task.data, Event.class);
+        return gson.fromJson(PendingTaskCodec.decode(task), Event.class);
     }
 
     protected void doHTTP(Event event) throws HttpRequestFailedException {
         this.baseHTTPService.sendEvent(event);
     }
 
+    /**
+     * Send all the given event tasks to the API in one bulk request. If that call succeeds, delete all the
+     * given tasks, otherwise, mark all of them as attempted.
+     *
+     * @param tasks Tasks to process.
+     */
+    public void processBatch(@NonNull List<PendingTask> tasks) {
+        Log.d(Constants.TAG, "Processing batch of " + tasks.size() + " events");
+
+        List<Event> events = new ArrayList<>(tasks.size());
+        for (PendingTask task : tasks) {
+            events.add(deserialize(task));
+        }
+
+        if (!this.canAttemptHTTP("batch of " + tasks.size() + " events")) {
+            return;
+        }
+
+        try {
+            this.baseHTTPService.sendEvents(events);
+            this.deleteTasks(tasks);
+
+        } catch (HttpRequestFailedException e) {
+            this.updateAttempted(tasks, e.getRetryAfterMillis());
+        }
+    }
+
     public boolean canProcess(@NonNull PendingTask task) {
         return task.type == PendingTaskType.API_SEND_EVENT;
     }
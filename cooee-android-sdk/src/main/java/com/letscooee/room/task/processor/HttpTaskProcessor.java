@@ -8,7 +8,7 @@ import androidx.annotation.NonNull;
 import com.letscooee.CooeeFactory;
 import com.letscooee.exceptions.HttpRequestFailedException;
 import com.letscooee.network.BaseHTTPService;
-import com.letscooee.network.ConnectionManager;
+import com.letscooee.network.ConnectivityMonitor;
 import com.letscooee.retrofit.DeviceAuthService;
 import com.letscooee.room.task.PendingTask;
 import com.letscooee.utils.Constants;
@@ -42,7 +42,7 @@ public abstract class HttpTaskProcessor<T> extends AbstractPendingTaskProcessor<
     /**
      * This method will deserialize the {@link PendingTask#data} and send it to HTTP API via {@link #doHTTP(Object)}
      * which is a synchronous call. If that call succeeds, delete the given {@link PendingTask}, otherwise, it will
-     * just update the {@link PendingTask} as attempted via {@link #updateAttempted(PendingTask)}
+     * just update the {@link PendingTask} as attempted via {@link #updateAttempted(PendingTask, long)}
      *
      * @param task Task to process.
      */
@@ -50,13 +50,7 @@ public abstract class HttpTaskProcessor<T> extends AbstractPendingTaskProcessor<
         Log.d(Constants.TAG, "Processing " + task);
         T data = deserialize(task);
 
-        if (!ConnectionManager.isNetworkAvailable(context)) {
-            Log.i(Constants.TAG, "Device does not have internet");
-            return;
-        }
-
-        if (!this.deviceAuthService.hasToken()) {
-            Log.i(Constants.TAG, "Don't have SDK token. Abort processing " + task);
+        if (!this.canAttemptHTTP(task.toString())) {
             return;
         }
 
@@ -65,7 +59,28 @@ public abstract class HttpTaskProcessor<T> extends AbstractPendingTaskProcessor<
             this.deleteTask(task);
 
         } catch (HttpRequestFailedException e) {
-            this.updateAttempted(task);
+            this.updateAttempted(task, e.getRetryAfterMillis());
+        }
+    }
+
+    /**
+     * Check if the network and the SDK token are available to attempt any HTTP call.
+     *
+     * @param subject What is going to be processed. Used for logging only.
+     * @return <code>true</code> if the HTTP call can be made.
+     */
+    protected boolean canAttemptHTTP(String subject) {
+        if (!ConnectivityMonitor.getInstance(context).isConnected()) {
+            Log.i(Constants.TAG, "Device does not have internet");
+            return false;
         }
+
+        // Waits if the token is being acquired by another thread
+        if (!this.deviceAuthService.awaitToken(DeviceAuthService.TOKEN_WAIT_TIMEOUT_MILLIS)) {
+            Log.i(Constants.TAG, "Don't have SDK token. Abort processing " + subject);
+            return false;
+        }
+
+        return true;
     }
 }
@@ -0,0 +1,73 @@
+package com.letscooee.room.task.processor;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import com.letscooee.room.task.PendingTask;
+import com.letscooee.room.task.PendingTaskType;
+import com.letscooee.utils.Constants;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Registry of {@link PendingTaskProcessor} keyed by {@link PendingTaskType}. Exactly one processor is
+ * registered for a type so a {@link PendingTask} is dispatched in O(1) and processed only once.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class PendingTaskProcessorRegistry {
+
+    private final Map<PendingTaskType, PendingTaskProcessor> processors = new EnumMap<>(PendingTaskType.class);
+
+    /**
+     * Register a processor for the given type replacing any previously registered processor.
+     *
+     * @param type      The type of tasks to process.
+     * @param processor The processor for the given type.
+     */
+    public synchronized void register(@NonNull PendingTaskType type, @NonNull PendingTaskProcessor processor) {
+        PendingTaskProcessor previous = processors.put(type, processor);
+
+        if (previous != null && previous != processor) {
+            Log.d(Constants.TAG, "Replaced processor for " + type);
+        }
+    }
+
+    /**
+     * Register a processor for the given type only if no processor is registered yet. Calling this multiple
+     * times for the same type has no effect.
+     *
+     * @param type      The type of tasks to process.
+     * @param processor The processor for the given type.
+     * @return <code>true</code> if the processor was registered.
+     */
+    public synchronized boolean registerIfAbsent(@NonNull PendingTaskType type,
+                                                 @NonNull PendingTaskProcessor processor) {
+        if (processors.containsKey(type)) {
+            return false;
+        }
+
+        processors.put(type, processor);
+        return true;
+    }
+
+    /**
+     * Find the processor of the given task.
+     *
+     * @param task The task to process.
+     * @return The registered processor for the type of the task or <code>null</code> if there is none.
+     */
+    @Nullable
+    public synchronized PendingTaskProcessor get(@NonNull PendingTask task) {
+        if (task.type == null) {
+            return null;
+        }
+
+        return processors.get(task.type);
+    }
+}
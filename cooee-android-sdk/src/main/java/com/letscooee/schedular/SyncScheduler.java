@@ -0,0 +1,193 @@
+package com.letscooee.schedular;
+
+import android.content.Context;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.OutOfQuotaPolicy;
+import androidx.work.WorkManager;
+
+import com.letscooee.retrofit.DeviceAuthService;
+import com.letscooee.schedular.worker.PendingTaskWorker;
+import com.letscooee.utils.Closure;
+import com.letscooee.utils.Constants;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules {@link PendingTaskWorker} as a unique work which runs only when the device has network and the battery
+ * is not low, so the device is not woken up uselessly while offline.
+ * <p>
+ * Instead of a fixed interval, every run schedules the next one as per the remaining backlog: sooner for a large
+ * backlog, backing off when the backlog is not going down and none at all once it is empty (new tasks are tried
+ * right away and a sync is scheduled again on the next app launch).
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class SyncScheduler {
+
+    public static final String KEY_BACKLOG = "backlog";
+    public static final String KEY_DELAY = "delay";
+
+    public static final String UNIQUE_WORK_NAME = "cooee_pending_task_sync";
+
+    static final long MIN_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    static final long DEFAULT_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(2);
+    static final long MAX_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private static final int LARGE_BACKLOG = 100;
+    private static final int MEDIUM_BACKLOG = 10;
+
+    private SyncScheduler() {
+    }
+
+    /**
+     * Schedule a sync after {@link #DEFAULT_DELAY_MILLIS} unless one is already scheduled or running.
+     *
+     * @param context the application context.
+     */
+    public static void schedule(Context context) {
+        // Replaced by this scheduler. Cancel the job scheduled by the older versions of the SDK
+        CooeeJobUtils.getJobScheduler(context).cancel(Constants.PENDING_TASK_JOB_ID);
+
+        ensureScheduled(context);
+    }
+
+    /**
+     * Schedule a sync after {@link #DEFAULT_DELAY_MILLIS} unless one is already scheduled or running. Called
+     * whenever a task is stored or has to be retried later, as no sync is scheduled once the backlog was drained.
+     *
+     * @param context the application context.
+     */
+    public static void ensureScheduled(Context context) {
+        enqueue(context, ExistingWorkPolicy.KEEP, newRequest(DEFAULT_DELAY_MILLIS, 0, false));
+    }
+
+    /**
+     * Run a sync right away (as expedited work where supported), for example, when the SDK token is acquired. Any
+     * scheduled or running sync is replaced.
+     *
+     * @param context the application context.
+     */
+    public static void syncNow(Context context) {
+        Log.v(Constants.TAG, "Run PendingTaskWorker immediately");
+        enqueue(context, ExistingWorkPolicy.REPLACE, newRequest(0, 0, true));
+    }
+
+    /**
+     * Create a listener for {@link DeviceAuthService#addTokenStateListener(Closure)} which runs a sync right away
+     * when the SDK token is acquired (and not on the first call if the token was already there), as the pending
+     * tasks are waiting for it.
+     *
+     * @param context the application context.
+     * @return the listener.
+     */
+    public static Closure<Boolean> newTokenStateListener(Context context) {
+        return new Closure<Boolean>() {
+
+            private Boolean hadToken;
+
+            @Override
+            public void call(Boolean hasToken) {
+                if (Boolean.FALSE.equals(hadToken) && hasToken) {
+                    syncNow(context);
+                }
+
+                hadToken = hasToken;
+            }
+        };
+    }
+
+    /**
+     * Schedule the next sync after the current run of {@link PendingTaskWorker}.
+     *
+     * @param context               the application context.
+     * @param backlog               Number of the tasks remaining after this run.
+     * @param earliestNextAttemptAt Time when the first of the remaining tasks is due.
+     * @param previousBacklog       Number of the tasks remaining after the previous run.
+     * @param previousDelay         Delay before this run.
+     */
+    public static void scheduleNext(Context context, int backlog, long earliestNextAttemptAt, int previousBacklog,
+                                    long previousDelay) {
+        long delay = getNextDelay(backlog, previousBacklog, previousDelay);
+        if (delay < 0) {
+            Log.v(Constants.TAG, "No pending tasks. Not scheduling the next sync");
+            return;
+        }
+
+        // No point in running before the remaining tasks are due
+        delay = Math.min(MAX_DELAY_MILLIS, Math.max(delay, earliestNextAttemptAt - System.currentTimeMillis()));
+
+        Log.v(Constants.TAG, "Next sync in " + delay + "ms for " + backlog + " tasks");
+
+        // The current work is still running, append so that the next run is queued after this one finishes
+        enqueue(context, ExistingWorkPolicy.APPEND_OR_REPLACE, newRequest(delay, backlog, false));
+    }
+
+    /**
+     * @return Delay before the next sync or <code>-1</code> if there is nothing to sync.
+     */
+    @VisibleForTesting
+    static long getNextDelay(int backlog, int previousBacklog, long previousDelay) {
+        if (backlog <= 0) {
+            return -1;
+        }
+
+        long delay;
+        if (backlog >= LARGE_BACKLOG) {
+            delay = MIN_DELAY_MILLIS;
+        } else if (backlog >= MEDIUM_BACKLOG) {
+            delay = TimeUnit.MINUTES.toMillis(1);
+        } else {
+            delay = DEFAULT_DELAY_MILLIS;
+        }
+
+        if (previousBacklog > 0 && backlog >= previousBacklog) {
+            // Nothing went through in the last run (server down or all the tasks are failing), back off
+            delay = Math.max(delay, previousDelay * 2);
+        }
+
+        return Math.min(delay, MAX_DELAY_MILLIS);
+    }
+
+    @VisibleForTesting
+    static OneTimeWorkRequest newRequest(long delayMillis, int backlog, boolean expedited) {
+        Constraints.Builder constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED);
+
+        OneTimeWorkRequest.Builder builder = new OneTimeWorkRequest.Builder(PendingTaskWorker.class)
+                .setInputData(new Data.Builder()
+                        .putInt(KEY_BACKLOG, backlog)
+                        .putLong(KEY_DELAY, delayMillis)
+                        .build());
+
+        // Expedited work below Android 12 runs as a foreground service which needs a notification. So the regular
+        // work without any delay is used there
+        if (expedited && Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
+            // Expedited work only supports the network and storage constraints
+            builder.setExpedited(OutOfQuotaPolicy.RUN_AS_NON_EXPEDITED_WORK_REQUEST);
+        } else {
+            constraints.setRequiresBatteryNotLow(!expedited);
+            builder.setInitialDelay(delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        return builder.setConstraints(constraints.build()).build();
+    }
+
+    private static void enqueue(Context context, ExistingWorkPolicy policy, OneTimeWorkRequest request) {
+        try {
+            WorkManager.getInstance(context).enqueueUniqueWork(UNIQUE_WORK_NAME, policy, request);
+        } catch (IllegalStateException e) {
+            // WorkManager is not initialized, for example, when the app has disabled its default initializer
+            Log.e(Constants.TAG, "Unable to schedule PendingTaskWorker", e);
+        }
+    }
+}
@@ -2,57 +2,30 @@ package com.letscooee.schedular.job;
 
 import android.app.job.JobParameters;
 import android.app.job.JobService;
-import android.content.Context;
 import android.util.Log;
-import com.letscooee.CooeeFactory;
-import com.letscooee.retrofit.DeviceAuthService;
-import com.letscooee.room.CooeeDatabase;
-import com.letscooee.room.task.PendingTask;
-import com.letscooee.task.CooeeExecutors;
+import com.letscooee.schedular.SyncScheduler;
 import com.letscooee.utils.Constants;
 
-import java.util.List;
-
 /**
- * This will run every 2 minute to execute pending tasks.
+ * The job which used to process the pending tasks every 2 minute. It is now replaced by {@link SyncScheduler} and
+ * is kept only to hand over a job scheduled by an older version of the SDK.
  *
  * @author Ashish Gaikwad on 19/5/21
  * @version 0.3.0
  */
 public class PendingTaskJob extends JobService {
 
-    private JobParameters jobParameters;
-
     @Override
     public boolean onStartJob(JobParameters params) {
-        jobParameters = params;
-        Context context = getApplicationContext();
-        Log.v(Constants.TAG, "PendingTaskJob running");
-
-        DeviceAuthService deviceAuthService = CooeeFactory.getDeviceAuthService();
-        if (!deviceAuthService.hasToken()) {
-            Log.d(Constants.TAG, "Abort PendingTaskJob. Do not have the SDK token");
-            return false;       // Job is finished
-        }
-
-        List<PendingTask> taskList = CooeeDatabase.getInstance(context)
-                .pendingTaskDAO()
-                .fetchPending();
+        Log.v(Constants.TAG, "PendingTaskJob running, handing over to SyncScheduler");
+        SyncScheduler.schedule(getApplicationContext());
 
-        // As job was running on main thread so all the network call were getting break
-        CooeeExecutors.getInstance().singleThreadExecutor().execute(() ->
-                CooeeFactory.getPendingTaskService().processTasks(taskList, this)
-        );
-
-        return true;
+        return false;       // Job is finished
     }
+
     @Override
     public boolean onStopJob(JobParameters params) {
         // Returning false to let job get finish
         return false;
     }
-
-    public JobParameters getJobParameters() {
-        return jobParameters;
-    }
 }
@@ -0,0 +1,61 @@
+package com.letscooee.schedular.worker;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.work.Data;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.letscooee.CooeeFactory;
+import com.letscooee.retrofit.DeviceAuthService;
+import com.letscooee.room.task.PendingTaskService;
+import com.letscooee.schedular.SyncScheduler;
+import com.letscooee.utils.Constants;
+
+/**
+ * Processes the pending tasks once the constraints of {@link SyncScheduler} (like network) are met and schedules
+ * the next run as per the remaining backlog.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class PendingTaskWorker extends Worker {
+
+    public PendingTaskWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Log.v(Constants.TAG, "PendingTaskWorker running");
+
+        DeviceAuthService deviceAuthService = CooeeFactory.getDeviceAuthService();
+        if (!deviceAuthService.awaitToken(DeviceAuthService.TOKEN_WAIT_TIMEOUT_MILLIS)) {
+            // A sync is requested as soon as the token is acquired
+            Log.d(Constants.TAG, "Abort PendingTaskWorker. Do not have the SDK token");
+            return Result.success();
+        }
+
+        // Runs on the background thread of WorkManager. Tasks are fetched page by page to keep the memory bounded
+        PendingTaskService pendingTaskService = CooeeFactory.getPendingTaskService();
+        pendingTaskService.processPendingTasks();
+
+        if (isStopped()) {
+            // Cancelled or replaced by a new sync
+            return Result.success();
+        }
+
+        Data inputData = getInputData();
+        SyncScheduler.scheduleNext(getApplicationContext(),
+                pendingTaskService.getBacklogSize(),
+                pendingTaskService.getEarliestNextAttemptAt(),
+                inputData.getInt(SyncScheduler.KEY_BACKLOG, 0),
+                inputData.getLong(SyncScheduler.KEY_DELAY, 0));
+
+        return Result.success();
+    }
+}
@@ -4,28 +4,25 @@ import android.app.Activity;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.text.TextUtils;
 import android.view.View;
 
 import androidx.annotation.RestrictTo;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import com.letscooee.CooeeFactory;
 import com.letscooee.exceptions.HttpRequestFailedException;
+import com.letscooee.network.ConnectivityMonitor;
+import com.letscooee.room.storage.KeyValueStore;
 import com.letscooee.task.CooeeExecutors;
 import com.letscooee.utils.Constants;
-import com.letscooee.utils.LocalStorageHelper;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.lang.reflect.Type;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
@@ -41,12 +38,20 @@ import okhttp3.RequestBody;
 public class ScreenshotUtility {
 
     private static ScreenshotHelper screenshotHelper;
-    private final Gson gson;
     private final Context context;
 
+    /**
+     * Last screenshot time of the screens kept in memory as they are checked on the main thread on every screen.
+     */
+    private final Map<String, Long> lastScreenshotTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Must be created in the background as it reads the last screenshot times from the database.
+     *
+     * @param context The application context
+     */
     public ScreenshotUtility(Context context) {
         this.context = context;
-        this.gson = new Gson();
         initializeScreenshotHelper();
     }
 
@@ -59,6 +64,8 @@ public class ScreenshotUtility {
             return;
         }
 
+        lastScreenshotTimes.putAll(KeyValueStore.getInstance(context)
+                .getAllByKey(KeyValueStore.COLLECTION_SCREENSHOT_SYNC_TIME, Long.class));
         screenshotHelper = this::captureScreenShot;
     }
 
@@ -74,6 +81,11 @@ public class ScreenshotUtility {
             return;
         }
 
+        // Screenshots are large, upload them only over an unmetered network. Will be taken on a later visit
+        if (!ConnectivityMonitor.getInstance(context).getState().isUnmetered()) {
+            return;
+        }
+
         View currentView = activity.getWindow().getDecorView().getRootView();
         currentView.addOnLayoutChangeListener(new View.OnLayoutChangeListener() {
             @Override
@@ -100,20 +112,9 @@ public class ScreenshotUtility {
      * <code>false</code>
      */
     private boolean isTimeToSendScreenshot(String screenName) {
-        String rawString = LocalStorageHelper.getString(context, Constants.STORAGE_SCREENSHOT_SYNC_TIME, null);
-        if (TextUtils.isEmpty(rawString)) {
-            return true;
-        }
+        Long lastScreenshotMillis = lastScreenshotTimes.get(screenName);
 
-        Type type = new TypeToken<Map<String, Date>>() {
-        }.getType();
-        Map<String, Date> screenshotTimeMap = gson.fromJson(rawString, type);
-
-        if (screenshotTimeMap == null) {
-            return true;
-        }
-
-        Date lastScreenshotTime = screenshotTimeMap.get(screenName);
+        Date lastScreenshotTime = lastScreenshotMillis == null ? null : new Date(lastScreenshotMillis);
         Date currentTime = new Date();
 
         if (lastScreenshotTime == null) {
@@ -192,24 +193,12 @@ public class ScreenshotUtility {
      * @param activityName Name of the {@link Activity}
      */
     private void updateScreenshotSaveSuccessTime(Map<String, Object> response, String activityName) {
-        String rawString = LocalStorageHelper.getString(context, Constants.STORAGE_SCREENSHOT_SYNC_TIME, null);
-        Map<String, Date> screenshotTimeMap;
-
-        if (TextUtils.isEmpty(rawString)) {
-            screenshotTimeMap = new HashMap<>();
-        } else {
-
-            Type type = new TypeToken<Map<String, Date>>() {
-            }.getType();
-            screenshotTimeMap = gson.fromJson(rawString, type);
-        }
-
         if (response.get("saved") != null && ((boolean) response.get("saved"))) {
-            screenshotTimeMap.put(activityName, new Date());
+            long now = new Date().getTime();
+            lastScreenshotTimes.put(activityName, now);
+            KeyValueStore.getInstance(context)
+                    .put(KeyValueStore.COLLECTION_SCREENSHOT_SYNC_TIME, activityName, now);
         }
-
-
-        LocalStorageHelper.putString(context, Constants.STORAGE_SCREENSHOT_SYNC_TIME, gson.toJson(screenshotTimeMap));
     }
 
     public static ScreenshotHelper getScreenshotHelper() {
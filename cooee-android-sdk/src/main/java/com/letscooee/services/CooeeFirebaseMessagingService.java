@@ -26,6 +26,7 @@ import com.letscooee.models.trigger.push.PushNotificationTrigger;
 import com.letscooee.pushnotification.PushProviderUtils;
 import com.letscooee.trigger.CooeeEmptyActivity;
 import com.letscooee.trigger.EngagementTriggerHelper;
+import com.letscooee.trigger.TriggerDetailCache;
 import com.letscooee.trigger.pushnotification.NotificationRenderer;
 import com.letscooee.trigger.pushnotification.SimpleNotificationRenderer;
 import com.letscooee.utils.Constants;
@@ -131,6 +132,9 @@ public class CooeeFirebaseMessagingService extends FirebaseMessagingService {
             CooeeFactory.getSafeHTTPService().sendEventWithoutSession(event);
 
             showNotification(triggerData);
+
+            // So that the in-app renders without waiting for the network when the notification is opened
+            TriggerDetailCache.getInstance(context).prefetch(triggerData);
         } else {
             engagementTriggerHelper.loadLazyData(triggerData);
         }
@@ -1,13 +1,24 @@
 package com.letscooee.task;
 
+import android.os.Process;
+
 import androidx.annotation.RestrictTo;
+
 import com.letscooee.retrofit.DeviceAuthService;
+import com.letscooee.task.CooeeThreadPoolExecutor.RejectionPolicy;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A utility class to provide global executors for multi-threading.
+ * <p>
+ * All the pools have bounded queues and named (<code>cooee-*</code>) background priority threads which are
+ * stopped when idle so the SDK does not compete with the app for the CPU or keep threads around.
  *
  * @author Shashank Agrawal
  * @version 0.3.0
@@ -19,9 +30,24 @@ public class CooeeExecutors {
 
     private static CooeeExecutors INSTANCE;
 
-    private final ExecutorService SINGLE_THREAD_EXECUTOR = Executors.newSingleThreadExecutor();
+    // Runs the token acquisition, sessions & lifecycle events which can not be dropped
+    private final CooeeThreadPoolExecutor SINGLE_THREAD_EXECUTOR = new CooeeThreadPoolExecutor(
+            "worker", 1, 1, CooeeThreadPoolExecutor.UNBOUNDED, RejectionPolicy.CALLER_RUNS);
+
+    // The tasks are already stored as pending tasks, a dropped one gets picked up by the pending task job
+    private final CooeeThreadPoolExecutor NETWORK_EXECUTOR = new CooeeThreadPoolExecutor(
+            "network", Math.max(2, NUMBER_OF_CORES), NUMBER_OF_CORES * 3, 256, RejectionPolicy.DISCARD);
+
+    // Writes should not be lost. The writers coalesce their work in batches so the queue stays short
+    private final CooeeThreadPoolExecutor DATABASE_WRITER_EXECUTOR = new CooeeThreadPoolExecutor(
+            "db-writer", 1, 1, CooeeThreadPoolExecutor.UNBOUNDED, RejectionPolicy.CALLER_RUNS);
+
+    // Callers wait for the results from a background thread
+    private final CooeeThreadPoolExecutor PENDING_TASK_EXECUTOR = new CooeeThreadPoolExecutor(
+            "pending-task", Math.max(2, Math.min(NUMBER_OF_CORES, 4)), Math.max(2, Math.min(NUMBER_OF_CORES, 4)),
+            64, RejectionPolicy.CALLER_RUNS);
 
-    private final ExecutorService NETWORK_EXECUTOR = Executors.newFixedThreadPool(NUMBER_OF_CORES * 3);
+    private final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
 
     public static CooeeExecutors getInstance() {
         if (INSTANCE == null) {
@@ -34,6 +60,17 @@ public class CooeeExecutors {
         return INSTANCE;
     }
 
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(2,
+                new NamedThreadFactory("scheduler", Process.THREAD_PRIORITY_BACKGROUND));
+
+        // Timers are stopped often (for example, the session keep alive), do not keep the cancelled tasks
+        scheduler.setRemoveOnCancelPolicy(true);
+        scheduler.setKeepAliveTime(30, TimeUnit.SECONDS);
+        scheduler.allowCoreThreadTimeOut(true);
+        return scheduler;
+    }
+
     public ExecutorService singleThreadExecutor() {
         return this.SINGLE_THREAD_EXECUTOR;
     }
@@ -41,4 +78,47 @@ public class CooeeExecutors {
     public ExecutorService networkExecutor() {
         return this.NETWORK_EXECUTOR;
     }
+
+    /**
+     * A bounded pool to process the partitions of pending tasks in parallel.
+     *
+     * @return the executor.
+     */
+    public ExecutorService pendingTaskExecutor() {
+        return this.PENDING_TASK_EXECUTOR;
+    }
+
+    /**
+     * A dedicated thread to write in the database in background.
+     *
+     * @return the executor.
+     */
+    public ExecutorService databaseWriterExecutor() {
+        return this.DATABASE_WRITER_EXECUTOR;
+    }
+
+    /**
+     * The shared scheduler of all the {@link com.letscooee.utils.Timer}. The scheduled tasks should be short and
+     * should hand over any long work to the other executors.
+     *
+     * @return the executor.
+     */
+    public ScheduledExecutorService scheduler() {
+        return this.SCHEDULER;
+    }
+
+    /**
+     * @return The current metrics of all the executors.
+     */
+    public List<ExecutorMetrics> getMetrics() {
+        List<ExecutorMetrics> metrics = new ArrayList<>();
+        metrics.add(SINGLE_THREAD_EXECUTOR.getMetrics());
+        metrics.add(NETWORK_EXECUTOR.getMetrics());
+        metrics.add(DATABASE_WRITER_EXECUTOR.getMetrics());
+        metrics.add(PENDING_TASK_EXECUTOR.getMetrics());
+        metrics.add(new ExecutorMetrics("scheduler", SCHEDULER.getPoolSize(), SCHEDULER.getActiveCount(),
+                SCHEDULER.getQueue().size(), Integer.MAX_VALUE, SCHEDULER.getCompletedTaskCount(), 0, 0, 0, 0));
+
+        return metrics;
+    }
 }
@@ -0,0 +1,173 @@
+package com.letscooee.task;
+
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+
+import com.letscooee.utils.Constants;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link ThreadPoolExecutor} with a bounded queue, named low priority threads (which are stopped when idle) and
+ * the metrics of the tasks. Check {@link RejectionPolicy} for what happens when the queue is full.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class CooeeThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    /**
+     * Queue capacity for the pools whose tasks must never be dropped. The {@link RejectionPolicy} of such a pool
+     * only applies after it is shut down.
+     */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * What to do with a task when the queue is full.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Drop the task (and cancel it, if it is a {@link Future}). For the tasks which can be lost or done again.
+         */
+        DISCARD,
+
+        /**
+         * Run the task on the calling thread. Dropped as {@link #DISCARD} if the caller is the main thread.
+         */
+        CALLER_RUNS
+    }
+
+    private final String name;
+    private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
+
+    private final AtomicLong rejectedTasks = new AtomicLong();
+    private final AtomicLong timedTasks = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+
+    /**
+     * @param name            Name of the pool, used in the thread names and the metrics.
+     * @param corePoolSize    Number of threads kept while there is work. The pool grows beyond it (till
+     *                        <code>maximumPoolSize</code>) only when the queue is full.
+     * @param maximumPoolSize Maximum number of threads.
+     * @param queueCapacity   Maximum number of the tasks waiting for a thread or {@link #UNBOUNDED}.
+     * @param rejectionPolicy What to do with a task when the queue is full.
+     */
+    public CooeeThreadPoolExecutor(String name, int corePoolSize, int maximumPoolSize, int queueCapacity,
+                                   RejectionPolicy rejectionPolicy) {
+        super(corePoolSize, maximumPoolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                new NamedThreadFactory(name, Process.THREAD_PRIORITY_BACKGROUND));
+
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.rejectionPolicy = rejectionPolicy;
+
+        this.setRejectedExecutionHandler(new Rejector());
+        this.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        super.execute(new TimedTask(command));
+    }
+
+    private void record(long waitNanos, long runNanos) {
+        timedTasks.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        totalRunNanos.addAndGet(runNanos);
+
+        long currentMax;
+        do {
+            currentMax = maxWaitNanos.get();
+        } while (waitNanos > currentMax && !maxWaitNanos.compareAndSet(currentMax, waitNanos));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRejectedTaskCount() {
+        return rejectedTasks.get();
+    }
+
+    public ExecutorMetrics getMetrics() {
+        long count = timedTasks.get();
+
+        return new ExecutorMetrics(
+                name,
+                getPoolSize(),
+                getActiveCount(),
+                getQueue().size(),
+                queueCapacity,
+                getCompletedTaskCount(),
+                rejectedTasks.get(),
+                count == 0 ? 0 : toMillis(totalWaitNanos.get() / count),
+                toMillis(maxWaitNanos.get()),
+                count == 0 ? 0 : toMillis(totalRunNanos.get() / count));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Wraps the task to measure how long it waited in the queue and how long it ran.
+     */
+    private class TimedTask implements Runnable {
+
+        private final Runnable task;
+        private final long queuedAt = System.nanoTime();
+
+        private TimedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                record(startedAt - queuedAt, System.nanoTime() - startedAt);
+            }
+        }
+    }
+
+    private class Rejector implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                return;
+            }
+
+            if (rejectionPolicy == RejectionPolicy.CALLER_RUNS && Looper.myLooper() != Looper.getMainLooper()) {
+                runnable.run();
+                return;
+            }
+
+            rejectedTasks.incrementAndGet();
+            Log.w(Constants.TAG, "Dropping a task as the queue of " + name + " is full");
+
+            Runnable task = runnable instanceof TimedTask ? ((TimedTask) runnable).task : runnable;
+            if (task instanceof Future) {
+                // So that nobody waits for it forever
+                ((Future<?>) task).cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.letscooee.task;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Snapshot of the state of one of the thread pools of the SDK. Can be used by the app to monitor the background
+ * work done by the SDK. Check {@link com.letscooee.CooeeSDK#getExecutorMetrics()}.
+ *
+ * @since 1.3.12
+ */
+public class ExecutorMetrics {
+
+    private final String name;
+    private final int poolSize;
+    private final int activeThreads;
+    private final int queueDepth;
+    private final int queueCapacity;
+    private final long completedTasks;
+    private final long rejectedTasks;
+    private final double averageWaitMillis;
+    private final double maxWaitMillis;
+    private final double averageRunMillis;
+
+    public ExecutorMetrics(String name, int poolSize, int activeThreads, int queueDepth, int queueCapacity,
+                           long completedTasks, long rejectedTasks, double averageWaitMillis,
+                           double maxWaitMillis, double averageRunMillis) {
+        this.name = name;
+        this.poolSize = poolSize;
+        this.activeThreads = activeThreads;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.completedTasks = completedTasks;
+        this.rejectedTasks = rejectedTasks;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.averageRunMillis = averageRunMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Number of the threads currently in the pool.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * @return Number of the threads running a task right now.
+     */
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    /**
+     * @return Number of the tasks waiting for a thread.
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * @return Maximum number of the tasks which can wait for a thread or {@link Integer#MAX_VALUE} if unbounded.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks;
+    }
+
+    /**
+     * @return Number of the tasks which were dropped because the queue was full.
+     */
+    public long getRejectedTasks() {
+        return rejectedTasks;
+    }
+
+    /**
+     * @return Average time the tasks waited in the queue before they started.
+     */
+    public double getAverageWaitMillis() {
+        return averageWaitMillis;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    /**
+     * @return Average time the tasks took to run.
+     */
+    public double getAverageRunMillis() {
+        return averageRunMillis;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "ExecutorMetrics{" +
+                "name='" + name + '\'' +
+                ", poolSize=" + poolSize +
+                ", activeThreads=" + activeThreads +
+                ", queueDepth=" + queueDepth +
+                ", queueCapacity=" + queueCapacity +
+                ", completedTasks=" + completedTasks +
+                ", rejectedTasks=" + rejectedTasks +
+                ", averageWaitMillis=" + averageWaitMillis +
+                ", maxWaitMillis=" + maxWaitMillis +
+                ", averageRunMillis=" + averageRunMillis +
+                '}';
+    }
+}
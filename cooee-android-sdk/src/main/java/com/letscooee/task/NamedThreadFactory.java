@@ -0,0 +1,42 @@
+package com.letscooee.task;
+
+import android.os.Process;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads of the SDK named as <code>cooee-&lt;name&gt;-&lt;number&gt;</code> (so that they can be
+ * identified in a trace or a thread dump) and running with the given Linux thread priority.
+ *
+ * @since 1.3.12
+ */
+class NamedThreadFactory implements ThreadFactory {
+
+    private final String name;
+    private final int priority;
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    /**
+     * @param name     Name of the pool.
+     * @param priority One of the {@link Process} priorities like {@link Process#THREAD_PRIORITY_BACKGROUND}.
+     */
+    NamedThreadFactory(String name, int priority) {
+        this.name = name;
+        this.priority = priority;
+    }
+
+    @Override
+    public Thread newThread(@NonNull Runnable runnable) {
+        // The Linux priority can only be set from the thread itself
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(priority);
+            runnable.run();
+        }, "cooee-" + name + "-" + threadNumber.getAndIncrement());
+
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,170 @@
+package com.letscooee.trigger;
+
+import android.content.Context;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+import com.letscooee.BuildConfig;
+import com.letscooee.models.trigger.EmbeddedTrigger;
+import com.letscooee.room.storage.KeyValueStore;
+import com.letscooee.task.CooeeExecutors;
+import com.letscooee.utils.Constants;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+
+/**
+ * In-memory store of the activated triggers (for "late engagement tracking") and the current active trigger which
+ * are sent with every event.
+ * <p>
+ * The triggers are read from the {@link KeyValueStore} only once. They are kept in a queue ordered by
+ * {@link EmbeddedTrigger#getExpireAt()} so the expired ones are evicted from the head without scanning the whole
+ * list. Every change is written asynchronously as a single row and reads never hit the storage.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class ActiveTriggerStore {
+
+    private static final Comparator<EmbeddedTrigger> BY_EXPIRY = (first, second) ->
+            Long.compare(getExpireAt(first), getExpireAt(second));
+
+    private static ActiveTriggerStore instance;
+
+    private final KeyValueStore keyValueStore;
+    private final PriorityQueue<EmbeddedTrigger> activatedTriggers = new PriorityQueue<>(11, BY_EXPIRY);
+
+    private EmbeddedTrigger activeTrigger;
+    private boolean loaded = false;
+
+    @VisibleForTesting
+    ActiveTriggerStore(KeyValueStore keyValueStore) {
+        this.keyValueStore = keyValueStore;
+    }
+
+    public static ActiveTriggerStore getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ActiveTriggerStore.class) {
+                if (instance == null) {
+                    instance = new ActiveTriggerStore(KeyValueStore.getInstance(context));
+                }
+            }
+        }
+
+        return instance;
+    }
+
+    @VisibleForTesting
+    static synchronized void setInstance(ActiveTriggerStore store) {
+        instance = store;
+    }
+
+    private static long getExpireAt(EmbeddedTrigger trigger) {
+        return trigger.getExpireAt() == null ? 0 : trigger.getExpireAt();
+    }
+
+    private synchronized void loadIfRequired() {
+        if (loaded) {
+            return;
+        }
+
+        activatedTriggers.addAll(keyValueStore.getAll(KeyValueStore.COLLECTION_ACTIVATED_TRIGGERS,
+                EmbeddedTrigger.class));
+        activeTrigger = keyValueStore.get(KeyValueStore.COLLECTION_ACTIVE_TRIGGER, KeyValueStore.KEY_CURRENT,
+                EmbeddedTrigger.class);
+        loaded = true;
+    }
+
+    /**
+     * Add a trigger to the activated triggers (if not already expired) and make it the current active trigger.
+     *
+     * @param trigger The trigger which was activated.
+     */
+    public synchronized void activate(EmbeddedTrigger trigger) {
+        loadIfRequired();
+
+        if (!trigger.isExpired() && !TextUtils.isEmpty(trigger.getTriggerID())) {
+            removeActivated(trigger.getTriggerID());
+            activatedTriggers.offer(trigger);
+
+            write(() -> keyValueStore.put(KeyValueStore.COLLECTION_ACTIVATED_TRIGGERS, trigger.getTriggerID(),
+                    trigger, getExpireAt(trigger)));
+        }
+
+        setActiveTrigger(trigger);
+
+        if (BuildConfig.DEBUG) {
+            Log.d(Constants.TAG, "Current active triggers: " + activatedTriggers);
+        }
+    }
+
+    private void removeActivated(String triggerID) {
+        Iterator<EmbeddedTrigger> iterator = activatedTriggers.iterator();
+        while (iterator.hasNext()) {
+            if (TextUtils.equals(iterator.next().getTriggerID(), triggerID)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the non-expired activated triggers. The expired triggers are evicted in the process.
+     *
+     * @return A new list of the non-expired triggers.
+     */
+    public synchronized ArrayList<EmbeddedTrigger> getActivatedTriggers() {
+        loadIfRequired();
+
+        long now = new Date().getTime();
+        boolean evicted = false;
+
+        while (!activatedTriggers.isEmpty() && getExpireAt(activatedTriggers.peek()) < now) {
+            activatedTriggers.poll();
+            evicted = true;
+        }
+
+        if (evicted) {
+            write(() -> keyValueStore.deleteExpired(KeyValueStore.COLLECTION_ACTIVATED_TRIGGERS, now));
+        }
+
+        return new ArrayList<>(activatedTriggers);
+    }
+
+    @Nullable
+    public synchronized EmbeddedTrigger getActiveTrigger() {
+        loadIfRequired();
+        return activeTrigger;
+    }
+
+    /**
+     * Set the current active trigger of the session.
+     *
+     * @param trigger The trigger or <code>null</code> to clear it, for example, when the session is concluded.
+     */
+    public synchronized void setActiveTrigger(@Nullable EmbeddedTrigger trigger) {
+        loadIfRequired();
+
+        activeTrigger = trigger;
+
+        if (trigger == null) {
+            write(() -> keyValueStore.remove(KeyValueStore.COLLECTION_ACTIVE_TRIGGER, KeyValueStore.KEY_CURRENT));
+        } else {
+            write(() -> keyValueStore.put(KeyValueStore.COLLECTION_ACTIVE_TRIGGER, KeyValueStore.KEY_CURRENT,
+                    trigger));
+        }
+    }
+
+    /**
+     * Write the change in background. The writes are done in order on a single thread.
+     */
+    private void write(Runnable runnable) {
+        CooeeExecutors.getInstance().databaseWriterExecutor().execute(runnable);
+    }
+}
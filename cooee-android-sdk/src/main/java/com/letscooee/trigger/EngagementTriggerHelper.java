@@ -10,7 +10,6 @@ import androidx.annotation.NonNull;
 import androidx.annotation.RestrictTo;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
-import com.letscooee.BuildConfig;
 import com.letscooee.CooeeFactory;
 import com.letscooee.models.Event;
 import com.letscooee.models.trigger.EmbeddedTrigger;
@@ -22,7 +21,6 @@ import com.letscooee.trigger.adapters.TriggerGsonDeserializer;
 import com.letscooee.trigger.inapp.InAppTriggerActivity;
 import com.letscooee.trigger.inapp.TriggerContext;
 import com.letscooee.utils.Constants;
-import com.letscooee.utils.LocalStorageHelper;
 import com.letscooee.utils.RuntimeData;
 import com.letscooee.utils.Timer;
 
@@ -46,39 +44,6 @@ public class EngagementTriggerHelper {
         this.context = context;
     }
 
-    /**
-     * Update previously stored map format to {@link EmbeddedTrigger}.
-     * Temporary. This should be removed in the next version release as it a migration for map to
-     * {@link EmbeddedTrigger}.
-     *
-     * @param context The application context.
-     */
-    private static void updateMapToEmbeddedTrigger(Context context) {
-        List<HashMap<String, Object>> oldActiveTriggers = LocalStorageHelper.getList(context,
-                Constants.STORAGE_ACTIVE_TRIGGERS);
-
-        if (oldActiveTriggers.size() == 0) return;
-
-        List<EmbeddedTrigger> activeTriggers = new ArrayList<>();
-
-        LocalStorageHelper.remove(context, Constants.STORAGE_ACTIVE_TRIGGERS);
-
-        for (HashMap<String, Object> trigger : oldActiveTriggers) {
-            String oldDuration = (String) Objects.requireNonNull(trigger.get("duration"));
-            Long expireAt = Long.parseLong(oldDuration) / 1000;
-
-            EmbeddedTrigger embeddedTrigger = new EmbeddedTrigger(
-                    (String) trigger.get("triggerID"),
-                    (String) trigger.get("engagementID"),
-                    expireAt
-            );
-
-            activeTriggers.add(embeddedTrigger);
-        }
-
-        LocalStorageHelper.putEmbeddedTriggersImmediately(context, Constants.STORAGE_ACTIVATED_TRIGGERS, activeTriggers);
-    }
-
     /**
      * Store the current active trigger details in local storage for "late engagement tracking".
      *
@@ -86,49 +51,16 @@ public class EngagementTriggerHelper {
      * @param triggerData Engagement trigger.
      */
     public static void storeActiveTriggerDetails(Context context, TriggerData triggerData) {
-        updateMapToEmbeddedTrigger(context);
-
-        ArrayList<EmbeddedTrigger> activeTriggers = LocalStorageHelper.getEmbeddedTriggers(context,
-                Constants.STORAGE_ACTIVATED_TRIGGERS);
-
-        EmbeddedTrigger embeddedTrigger = new EmbeddedTrigger(triggerData);
-
-        if (!embeddedTrigger.isExpired()) {
-            activeTriggers.add(embeddedTrigger);
-        }
-
-        if (BuildConfig.DEBUG) {
-            Log.d(Constants.TAG, "Current active triggers: " + activeTriggers);
-        }
-
-        setActiveTrigger(context, triggerData);
-        LocalStorageHelper.putEmbeddedTriggersImmediately(context, Constants.STORAGE_ACTIVATED_TRIGGERS, activeTriggers);
+        ActiveTriggerStore.getInstance(context).activate(new EmbeddedTrigger(triggerData));
     }
 
     /**
-     * Get the list of non-expired active triggers from local storage for "late engagement tracking".
+     * Get the list of non-expired active triggers for "late engagement tracking".
      *
      * @param context The application context.
      */
     public static ArrayList<EmbeddedTrigger> getActiveTriggers(Context context) {
-        updateMapToEmbeddedTrigger(context);
-
-        ArrayList<EmbeddedTrigger> allTriggers = LocalStorageHelper.getEmbeddedTriggers(context,
-                Constants.STORAGE_ACTIVATED_TRIGGERS);
-
-        ListIterator<EmbeddedTrigger> iterator = allTriggers.listIterator();
-
-        while (iterator.hasNext()) {
-            // If it's validity has not yet expired
-            if (iterator.next().isExpired()) {
-                iterator.remove();
-            }
-        }
-
-        // Also update it immediately in local storage
-        LocalStorageHelper.putEmbeddedTriggersImmediately(context, Constants.STORAGE_ACTIVATED_TRIGGERS, allTriggers);
-
-        return allTriggers;
+        return ActiveTriggerStore.getInstance(context).getActivatedTriggers();
     }
 
     /**
@@ -265,7 +197,7 @@ public class EngagementTriggerHelper {
      * @param triggerData Data to render in-app.
      */
     public void loadLazyData(TriggerData triggerData) {
-        InAppTriggerHelper.loadLazyData(triggerData, (InAppTrigger inAppTrigger) -> {
+        InAppTriggerHelper.loadLazyData(context, triggerData, (InAppTrigger inAppTrigger) -> {
             triggerData.setInAppTrigger(inAppTrigger);
             renderInAppTrigger(triggerData);
         });
@@ -278,7 +210,6 @@ public class EngagementTriggerHelper {
      * @param triggerData Data to render in-app.
      */
     private static void setActiveTrigger(Context context, TriggerData triggerData) {
-        LocalStorageHelper.putEmbeddedTriggerImmediately(context, Constants.STORAGE_ACTIVE_TRIGGER,
-                new EmbeddedTrigger(triggerData));
+        ActiveTriggerStore.getInstance(context).setActiveTrigger(new EmbeddedTrigger(triggerData));
     }
 }
@@ -1,5 +1,7 @@
 package com.letscooee.trigger;
 
+import android.content.Context;
+
 import com.google.gson.Gson;
 import com.letscooee.CooeeFactory;
 import com.letscooee.exceptions.HttpRequestFailedException;
@@ -18,15 +20,24 @@ import com.letscooee.trigger.adapters.TriggerGsonDeserializer;
 public class InAppTriggerHelper {
 
     /**
-     * Load in-app data on a separate thread through a http call to server.
+     * Load in-app data on a separate thread from the {@link TriggerDetailCache} (if prefetched when the push was
+     * received) or through a http call to server.
      *
+     * @param context     the application's context
      * @param triggerData engagement trigger {@link TriggerData}
      * @param callback    callback on complete
      */
-    public static void loadLazyData(TriggerData triggerData, Closure<InAppTrigger> callback) {
+    public static void loadLazyData(Context context, TriggerData triggerData, Closure<InAppTrigger> callback) {
         CooeeExecutors.getInstance().singleThreadExecutor().execute(() -> {
+            TriggerDetailCache cache = TriggerDetailCache.getInstance(context);
+            Object rawInApp = cache.get(triggerData.getId());
+
+            if (rawInApp == null) {
+                rawInApp = doHTTPForIAN(triggerData.getId());
+                cache.put(triggerData, rawInApp);
+            }
 
-            InAppTrigger inAppTrigger = getIANFromRawIAN(doHTTPForIAN(triggerData.getId()));
+            InAppTrigger inAppTrigger = getIANFromRawIAN(rawInApp);
 
             if (inAppTrigger == null) {
                 return;
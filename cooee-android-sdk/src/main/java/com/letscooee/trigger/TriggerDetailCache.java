@@ -0,0 +1,125 @@
+package com.letscooee.trigger;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+import com.letscooee.CooeeFactory;
+import com.letscooee.exceptions.HttpRequestFailedException;
+import com.letscooee.models.trigger.TriggerData;
+import com.letscooee.network.ConnectivityMonitor;
+import com.letscooee.room.storage.KeyValueStore;
+import com.letscooee.task.CooeeExecutors;
+import com.letscooee.utils.Constants;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent cache of the in-app details of the triggers (<code>GET /v1/trigger/details/{id}</code>) so that the
+ * in-app of a push notification renders from the local data when the notification is opened.
+ * <p>
+ * The details are prefetched when the push is received. Items are stored in the {@link KeyValueStore} till the
+ * {@link TriggerData#getExpireAt()} of the trigger and only the {@link #MAX_ITEMS} recently stored ones are kept.
+ * Make sure the methods (except {@link #prefetch}) are not called in the main-thread.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public class TriggerDetailCache {
+
+    @VisibleForTesting
+    static final int MAX_ITEMS = 20;
+
+    /**
+     * Used when the trigger does not have an expiry.
+     */
+    private static final long DEFAULT_TTL_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static volatile TriggerDetailCache instance;
+
+    private final Context context;
+    private final KeyValueStore keyValueStore;
+
+    @VisibleForTesting
+    TriggerDetailCache(Context context, KeyValueStore keyValueStore) {
+        this.context = context.getApplicationContext();
+        this.keyValueStore = keyValueStore;
+    }
+
+    public static TriggerDetailCache getInstance(Context context) {
+        if (instance == null) {
+            synchronized (TriggerDetailCache.class) {
+                if (instance == null) {
+                    instance = new TriggerDetailCache(context, KeyValueStore.getInstance(context));
+                }
+            }
+        }
+
+        return instance;
+    }
+
+    /**
+     * Fetch and store the in-app details of the trigger in background, unless those are already cached.
+     *
+     * @param triggerData The trigger received in the push notification.
+     */
+    public void prefetch(TriggerData triggerData) {
+        if (triggerData.getId() == null || isExpired(triggerData.getExpireAt())) {
+            return;
+        }
+
+        CooeeExecutors.getInstance().networkExecutor().execute(() -> {
+            if (this.get(triggerData.getId()) != null) {
+                return;
+            }
+
+            if (!ConnectivityMonitor.getInstance(context).isConnected()) {
+                // Fetched when the notification is opened
+                return;
+            }
+
+            try {
+                Object rawInApp = CooeeFactory.getBaseHTTPService().getIANTrigger(triggerData.getId()).get("ian");
+                this.put(triggerData, rawInApp);
+            } catch (HttpRequestFailedException e) {
+                Log.d(Constants.TAG, "Unable to prefetch the trigger " + triggerData.getId(), e);
+            }
+        });
+    }
+
+    /**
+     * @param triggerId Id of the trigger.
+     * @return The raw in-app details of the trigger or <code>null</code> if not cached or expired.
+     */
+    @Nullable
+    public Map<?, ?> get(String triggerId) {
+        keyValueStore.deleteExpired(KeyValueStore.COLLECTION_TRIGGER_DETAILS, System.currentTimeMillis());
+        return keyValueStore.get(KeyValueStore.COLLECTION_TRIGGER_DETAILS, triggerId, Map.class);
+    }
+
+    /**
+     * Store the raw in-app details of the trigger and drop the oldest ones beyond {@link #MAX_ITEMS}.
+     *
+     * @param triggerData The trigger.
+     * @param rawInApp    The raw in-app details received from the server.
+     */
+    public void put(TriggerData triggerData, @Nullable Object rawInApp) {
+        if (rawInApp == null || triggerData.getId() == null || isExpired(triggerData.getExpireAt())) {
+            return;
+        }
+
+        long expireAt = triggerData.getExpireAt() > 0 ? triggerData.getExpireAt()
+                : System.currentTimeMillis() + DEFAULT_TTL_MILLIS;
+
+        keyValueStore.put(KeyValueStore.COLLECTION_TRIGGER_DETAILS, triggerData.getId(), rawInApp, expireAt);
+        keyValueStore.trim(KeyValueStore.COLLECTION_TRIGGER_DETAILS, MAX_ITEMS);
+    }
+
+    private static boolean isExpired(long expireAt) {
+        return expireAt > 0 && expireAt < System.currentTimeMillis();
+    }
+}
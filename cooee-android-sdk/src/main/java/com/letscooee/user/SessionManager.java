@@ -1,9 +1,14 @@
 package com.letscooee.user;
 
 import android.content.Context;
+import android.os.SystemClock;
 import android.text.TextUtils;
 import androidx.annotation.RestrictTo;
 import com.letscooee.CooeeFactory;
+import com.letscooee.retrofit.APIClient;
+import com.letscooee.room.task.PendingTaskService;
+import com.letscooee.task.CooeeExecutors;
+import com.letscooee.trigger.ActiveTriggerStore;
 import com.letscooee.utils.Constants;
 import com.letscooee.utils.LocalStorageHelper;
 import com.letscooee.utils.RuntimeData;
@@ -13,6 +18,8 @@ import org.bson.types.ObjectId;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages the user's current session in the app.
@@ -23,15 +30,28 @@ import java.util.Map;
 @RestrictTo(RestrictTo.Scope.LIBRARY)
 public class SessionManager {
 
+    /**
+     * The last session use time is only persisted after this delay so that a burst of events causes one write.
+     */
+    private static final long LAST_USE_FLUSH_DELAY_MILLIS = 5 * 1000;
+
     private static SessionManager instance;
 
     private final Context context;
     private final RuntimeData runtimeData;
 
-    private String currentSessionID;
-    private Integer currentSessionNumber;
+    private volatile String currentSessionID;
+    private volatile Integer currentSessionNumber;
     private Date currentSessionStartTime;
 
+    /**
+     * In-memory copy of {@link Constants#STORAGE_LAST_SESSION_USE_TIME} in milliseconds, 0 if not available.
+     */
+    private final AtomicLong lastSessionUseTime = new AtomicLong();
+    private final AtomicBoolean lastUseFlushScheduled = new AtomicBoolean();
+    private final Timer flushTimer = new Timer();
+    private boolean loadedFromStorage = false;
+
     private Timer timer = new Timer();
     private Runnable runnable;
 
@@ -69,29 +89,68 @@ public class SessionManager {
      * @return The current or new session id.
      */
     public synchronized String getCurrentSessionID(boolean createNew) {
-        currentSessionID = LocalStorageHelper.getString(context, Constants.STORAGE_ACTIVE_SESSION, null);
-        currentSessionNumber = LocalStorageHelper.getInt(context, Constants.STORAGE_SESSION_NUMBER, 0);
+        loadFromStorage();
 
         if (createNew) {
             startNewSession();
         }
 
-        LocalStorageHelper.putDate(context, Constants.STORAGE_LAST_SESSION_USE_TIME, new Date());
+        lastSessionUseTime.set(new Date().getTime());
+        scheduleLastUseFlush();
 
         return currentSessionID;
     }
 
+    /**
+     * Read the session state from the local storage only once. After that the in-memory state is the source of
+     * truth and only the changes are written back.
+     */
+    private synchronized void loadFromStorage() {
+        if (loadedFromStorage) {
+            return;
+        }
+
+        currentSessionID = LocalStorageHelper.getString(context, Constants.STORAGE_ACTIVE_SESSION, null);
+        currentSessionNumber = LocalStorageHelper.getInt(context, Constants.STORAGE_SESSION_NUMBER, 0);
+
+        Date lastUseTime = LocalStorageHelper.getDate(context, Constants.STORAGE_LAST_SESSION_USE_TIME, null);
+        lastSessionUseTime.set(lastUseTime == null ? 0 : lastUseTime.getTime());
+
+        loadedFromStorage = true;
+    }
+
+    private void scheduleLastUseFlush() {
+        if (lastUseFlushScheduled.compareAndSet(false, true)) {
+            flushTimer.schedule(this::flush, LAST_USE_FLUSH_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * Persist the in-memory last session use time right away. Called from the debounced timer and when the app
+     * goes to the background as the process may get killed after that.
+     */
+    public synchronized void flush() {
+        lastUseFlushScheduled.set(false);
+
+        long lastUseTime = lastSessionUseTime.get();
+        if (lastUseTime > 0) {
+            LocalStorageHelper.putDateAsync(context, Constants.STORAGE_LAST_SESSION_USE_TIME, new Date(lastUseTime));
+        }
+    }
+
     /**
      * Start a new session only if {@code currentSessionID} is empty.
      */
-    public void startNewSession() {
+    public synchronized void startNewSession() {
+        loadFromStorage();
+
         if (!TextUtils.isEmpty(currentSessionID)) {
             return;
         }
 
         currentSessionStartTime = new Date();
         currentSessionID = new ObjectId().toHexString();
-        LocalStorageHelper.putString(context, Constants.STORAGE_ACTIVE_SESSION, currentSessionID);
+        LocalStorageHelper.putStringAsync(context, Constants.STORAGE_ACTIVE_SESSION, currentSessionID);
 
         bumpSessionNumber();
     }
@@ -105,12 +164,16 @@ public class SessionManager {
         requestData.put("sessionID", this.getCurrentSessionID());
         requestData.put("occurred", new Date());
 
-        // Remove active trigger after session is concluded
-        LocalStorageHelper.remove(context, Constants.STORAGE_ACTIVE_TRIGGER);
-        LocalStorageHelper.remove(context, Constants.STORAGE_ACTIVE_SESSION);
-        LocalStorageHelper.remove(context, Constants.STORAGE_LAST_SESSION_USE_TIME);
+        synchronized (this) {
+            // Remove active trigger after session is concluded
+            ActiveTriggerStore.getInstance(context).setActiveTrigger(null);
+            LocalStorageHelper.removeAsync(context, Constants.STORAGE_ACTIVE_SESSION);
+            LocalStorageHelper.removeAsync(context, Constants.STORAGE_LAST_SESSION_USE_TIME);
+
+            this.lastSessionUseTime.set(0);
+            this.destroySession();
+        }
 
-        this.destroySession();
         CooeeFactory.getSafeHTTPService().sendSessionConcludedEvent(requestData);
     }
 
@@ -127,16 +190,15 @@ public class SessionManager {
      * Bump the session number by 1.
      */
     private void bumpSessionNumber() {
-        currentSessionNumber = LocalStorageHelper.getInt(context, Constants.STORAGE_SESSION_NUMBER, 0);
-        currentSessionNumber += 1;
+        currentSessionNumber = LocalStorageHelper.getInt(context, Constants.STORAGE_SESSION_NUMBER, 0) + 1;
 
-        LocalStorageHelper.putInt(context, Constants.STORAGE_SESSION_NUMBER, currentSessionNumber);
+        LocalStorageHelper.putIntAsync(context, Constants.STORAGE_SESSION_NUMBER, currentSessionNumber);
     }
 
     /**
      * Destroy the current session.
      */
-    public void destroySession() {
+    public synchronized void destroySession() {
         this.currentSessionID = null;
         this.currentSessionNumber = null;
         this.currentSessionStartTime = null;
@@ -159,12 +221,14 @@ public class SessionManager {
      * @return The time difference in seconds.
      */
     public long getSessionIdleTimeInSeconds() {
-        Date lastSessionUseTime = LocalStorageHelper.getDate(context, Constants.STORAGE_LAST_SESSION_USE_TIME, null);
-        if (lastSessionUseTime == null) {
+        loadFromStorage();
+
+        long lastUseTime = lastSessionUseTime.get();
+        if (lastUseTime == 0) {
             return 0;
         }
 
-        return (new Date().getTime() - lastSessionUseTime.getTime()) / 1000;
+        return (new Date().getTime() - lastUseTime) / 1000;
     }
 
     /**
@@ -189,10 +253,34 @@ public class SessionManager {
             timer = new Timer();
         }
 
-        timer.schedule(runnable = () -> {
-            timer.schedule(runnable, Constants.KEEP_ALIVE_TIME_IN_MS);
-            this.pingServerToKeepAlive();
-        }, Constants.KEEP_ALIVE_TIME_IN_MS);
+        timer.schedule(runnable = this::onKeepAliveDue, Constants.KEEP_ALIVE_TIME_IN_MS);
+    }
+
+    /**
+     * Keep the session alive only if the server has not heard from this session in the last
+     * {@link Constants#KEEP_ALIVE_TIME_IN_MS}. Any successful authenticated request already keeps the session alive
+     * so the ping is skipped and the next check is moved to one full interval after that request. When events are
+     * waiting to be sent in a batch, they are flushed instead of a separate ping as they carry the session as well.
+     */
+    private void onKeepAliveDue() {
+        long quietForMillis = SystemClock.elapsedRealtime() - APIClient.getLastAuthenticatedRequestTime();
+
+        if (quietForMillis < Constants.KEEP_ALIVE_TIME_IN_MS) {
+            timer.schedule(runnable, Constants.KEEP_ALIVE_TIME_IN_MS - quietForMillis);
+            return;
+        }
+
+        timer.schedule(runnable, Constants.KEEP_ALIVE_TIME_IN_MS);
+
+        // Runs on the shared scheduler of the timers, hand over the network call
+        CooeeExecutors.getInstance().networkExecutor().execute(() -> {
+            PendingTaskService pendingTaskService = CooeeFactory.getPendingTaskService();
+            if (pendingTaskService.hasQueuedEvents()) {
+                pendingTaskService.flushEventBatch();
+            } else {
+                this.pingServerToKeepAlive();
+            }
+        });
     }
 
     /**
@@ -27,6 +27,8 @@ public class Constants {
     public static final String STORAGE_SCREENSHOT_SYNC_TIME = "screenshot_sync_time";
     public static final String STORAGE_LAST_SESSION_USE_TIME = "cooee_last_session_use_time";
     public static final String STORAGE_ACTIVE_SESSION = "cooee_active_session";
+    public static final String STORAGE_DROPPED_TASKS = "cooee_dropped_tasks";
+    public static final String STORAGE_LAST_VACUUM_TIME = "cooee_last_vacuum_time";
     // endregion
 
     public static final String TAG = "CooeeSDK";
@@ -73,6 +73,8 @@ public class DebugInfoCollector {
                 Constants.STORAGE_DEVICE_ID, ""), true));
         deviceInformation.add(new DebugInformation("Resolution", deviceInfo.getDisplayWidth() + "x" +
                 deviceInfo.getDisplayHeight()));
+        deviceInformation.add(new DebugInformation("Dropped Tasks", String.valueOf(
+                LocalStorageHelper.getLong(context, Constants.STORAGE_DROPPED_TASKS, 0))));
     }
 
     public List<DebugInformation> getDeviceInformation() {
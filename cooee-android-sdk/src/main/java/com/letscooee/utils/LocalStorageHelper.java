@@ -4,6 +4,7 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.text.TextUtils;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 
 import com.google.gson.Gson;
@@ -18,9 +19,14 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 /**
  * LocalStorageHelper is used to store local shared preference data
+ * <p>
+ * The <code>*Immediately</code> methods block on {@link SharedPreferences.Editor#commit()} and should not be used on
+ * the main thread. Use the <code>*Async</code> methods to write in background with a {@link Future} or a callback
+ * of the result. A key should be written either only via the async methods or only via the others.
  *
  * @author Abhishek Taparia
  */
@@ -35,6 +41,11 @@ public final class LocalStorageHelper {
     }
 
     public static String getString(Context context, String key, String defaultValue) {
+        Object pending = getPending(context, key);
+        if (pending != null) {
+            return pending == PreferenceWriter.REMOVED ? defaultValue : (String) pending;
+        }
+
         return getPreferences(context).getString(key, defaultValue);
     }
 
@@ -51,6 +62,11 @@ public final class LocalStorageHelper {
     }
 
     public static int getInt(Context context, String key, int defaultValue) {
+        Object pending = getPending(context, key);
+        if (pending != null) {
+            return pending == PreferenceWriter.REMOVED ? defaultValue : (Integer) pending;
+        }
+
         return getPreferences(context).getInt(key, defaultValue);
     }
 
@@ -67,6 +83,11 @@ public final class LocalStorageHelper {
     }
 
     public static boolean getBoolean(Context context, String key, boolean defaultValue) {
+        Object pending = getPending(context, key);
+        if (pending != null) {
+            return pending == PreferenceWriter.REMOVED ? defaultValue : (Boolean) pending;
+        }
+
         return getPreferences(context).getBoolean(key, defaultValue);
     }
 
@@ -150,6 +171,7 @@ public final class LocalStorageHelper {
     }
 
     public static boolean commit(SharedPreferences.Editor editor) {
+        MainThreadStorageDetector.check("SharedPreferences.commit()");
         return editor.commit();
     }
 
@@ -182,6 +204,11 @@ public final class LocalStorageHelper {
     }
 
     public static long getLong(Context context, String key, long defaultValue) {
+        Object pending = getPending(context, key);
+        if (pending != null) {
+            return pending == PreferenceWriter.REMOVED ? defaultValue : (Long) pending;
+        }
+
         return getPreferences(context).getLong(key, defaultValue);
     }
 
@@ -208,4 +235,55 @@ public final class LocalStorageHelper {
         long time = getLong(context, key, 0);
         return time > 0 ? new Date(time) : defaultValue;
     }
+
+    private static PreferenceWriter getWriter(Context context) {
+        return PreferenceWriter.getInstance(getPreferences(context));
+    }
+
+    @Nullable
+    private static Object getPending(Context context, String key) {
+        return getWriter(context).getPending(key);
+    }
+
+    /**
+     * Stores a string in background. The writes queued before the writer thread picks them up are committed
+     * together. The value is readable via {@link #getString} right away.
+     *
+     * @param context The context to use.
+     * @param key     The key to store the value under.
+     * @param value   The value to store.
+     * @return Future of the result of the commit.
+     */
+    public static Future<Boolean> putStringAsync(Context context, String key, String value) {
+        return putStringAsync(context, key, value, null);
+    }
+
+    /**
+     * Same as {@link #putStringAsync(Context, String, String)} with a callback of the result of the commit which is
+     * invoked on the writer thread.
+     */
+    public static Future<Boolean> putStringAsync(Context context, String key, String value,
+                                                 @Nullable Closure<Boolean> onWritten) {
+        return getWriter(context).write(key, value, onWritten);
+    }
+
+    public static Future<Boolean> putIntAsync(Context context, String key, int value) {
+        return getWriter(context).write(key, value, null);
+    }
+
+    public static Future<Boolean> putLongAsync(Context context, String key, long value) {
+        return getWriter(context).write(key, value, null);
+    }
+
+    public static Future<Boolean> putBooleanAsync(Context context, String key, boolean value) {
+        return getWriter(context).write(key, value, null);
+    }
+
+    public static Future<Boolean> putDateAsync(Context context, String key, Date date) {
+        return putLongAsync(context, key, date.getTime());
+    }
+
+    public static Future<Boolean> removeAsync(Context context, String key) {
+        return getWriter(context).write(key, PreferenceWriter.REMOVED, null);
+    }
 }
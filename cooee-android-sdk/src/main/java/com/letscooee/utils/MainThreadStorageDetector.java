@@ -0,0 +1,66 @@
+package com.letscooee.utils;
+
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+import com.letscooee.BuildConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A strict-mode like detector for the blocking storage calls (synchronous preference commits and database
+ * queries) made on the main thread. The violations are logged with the stack trace of the caller in the debug
+ * builds of the SDK and collected while testing so that the tests can assert them.
+ *
+ * @since 1.3.12
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY)
+public final class MainThreadStorageDetector {
+
+    private static final List<Throwable> violations = Collections.synchronizedList(new ArrayList<>());
+
+    private MainThreadStorageDetector() {
+    }
+
+    private static boolean isEnabled() {
+        return BuildConfig.DEBUG || BuildConfig.IS_TESTING.get();
+    }
+
+    /**
+     * Report the given operation if it is being done on the main thread.
+     *
+     * @param operation Short description of the blocking storage operation.
+     */
+    public static void check(String operation) {
+        if (!isEnabled() || Looper.myLooper() != Looper.getMainLooper()) {
+            return;
+        }
+
+        Throwable violation = new Throwable("Blocking storage call on main thread: " + operation);
+        Log.w(Constants.TAG, violation.getMessage(), violation);
+
+        if (BuildConfig.IS_TESTING.get()) {
+            violations.add(violation);
+        }
+    }
+
+    /**
+     * @return All the violations collected while testing since the last {@link #reset()}.
+     */
+    @VisibleForTesting
+    public static List<Throwable> getViolations() {
+        synchronized (violations) {
+            return new ArrayList<>(violations);
+        }
+    }
+
+    @VisibleForTesting
+    public static void reset() {
+        violations.clear();
+    }
+}
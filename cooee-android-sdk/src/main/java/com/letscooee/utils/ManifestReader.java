@@ -25,6 +25,7 @@ public class ManifestReader {
 
     private String appID = "";
     private int shakeToDebugCount = 0;
+    private boolean eventBatchingEnabled = false;
 
     public synchronized static ManifestReader getInstance(Context context) {
         if (instance == null) {
@@ -54,6 +55,7 @@ public class ManifestReader {
 
         Bundle bundle = appInfo.metaData;
         this.appID = bundle.getString("COOEE_APP_ID", "");
+        this.eventBatchingEnabled = bundle.getBoolean("COOEE_BATCH_EVENTS", false);
         try {
             this.shakeToDebugCount = ShakeDensity.valueOf(bundle.getString("SHAKE_TO_DEBUG_COUNT",
                     "NONE")).shakeVolume;
@@ -70,4 +72,14 @@ public class ManifestReader {
     public int getShakeToDebugCount() {
         return shakeToDebugCount;
     }
+
+    /**
+     * Check if the app has opted to coalesce events in bulk requests instead of sending each event
+     * immediately. Enabled via the {@code COOEE_BATCH_EVENTS} meta-data.
+     *
+     * @return <code>true</code> if events should be batched.
+     */
+    public boolean isEventBatchingEnabled() {
+        return eventBatchingEnabled;
+    }
 }
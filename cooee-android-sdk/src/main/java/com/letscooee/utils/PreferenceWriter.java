@@ -0,0 +1,200 @@
+package com.letscooee.utils;
+
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.letscooee.task.CooeeExecutors;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Writes the preference changes on the background storage writer thread. All the changes made before the thread
+ * picks up the pending batch are coalesced into a single {@link SharedPreferences.Editor#commit()} (last value of
+ * a key wins) and every caller of that batch gets its own {@link Future} of the commit result. The futures can not
+ * be cancelled as the commit is shared by all the callers of the batch. The changes of a failed commit stay pending
+ * and go with the next batch.
+ * <p>
+ * The pending changes are visible to the reads via {@link #getPending(String)} so the callers always read what
+ * they wrote even before it reaches the disk.
+ *
+ * @since 1.3.12
+ */
+final class PreferenceWriter {
+
+    /**
+     * Marker value of a pending removal.
+     */
+    static final Object REMOVED = new Object();
+
+    private static PreferenceWriter instance;
+
+    private final SharedPreferences preferences;
+    private final Map<String, Object> pendingChanges = new LinkedHashMap<>();
+    private final List<Closure<Boolean>> pendingCallbacks = new ArrayList<>();
+    private final List<CommitResult> pendingResults = new ArrayList<>();
+
+    private boolean batchScheduled;
+
+    private PreferenceWriter(SharedPreferences preferences) {
+        this.preferences = preferences;
+    }
+
+    static synchronized PreferenceWriter getInstance(SharedPreferences preferences) {
+        if (instance == null || instance.preferences != preferences) {
+            instance = new PreferenceWriter(preferences);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Queue a change.
+     *
+     * @param key       The preference key.
+     * @param value     One of {@link String}, {@link Integer}, {@link Long}, {@link Boolean} or {@link #REMOVED}.
+     *                  <code>null</code> is same as {@link #REMOVED}.
+     * @param onWritten Optional callback invoked on the writer thread with the result of the commit.
+     * @return Future (which can not be cancelled) of the commit result of the batch which includes this change.
+     */
+    synchronized Future<Boolean> write(String key, Object value, @Nullable Closure<Boolean> onWritten) {
+        pendingChanges.put(key, value == null ? REMOVED : value);
+
+        if (onWritten != null) {
+            pendingCallbacks.add(onWritten);
+        }
+
+        CommitResult result = new CommitResult();
+        pendingResults.add(result);
+
+        if (!batchScheduled) {
+            batchScheduled = true;
+            CooeeExecutors.getInstance().databaseWriterExecutor().execute(this::commitPending);
+        }
+
+        return result;
+    }
+
+    /**
+     * @return The pending value of the key (may be {@link #REMOVED}) or <code>null</code> if nothing is pending.
+     */
+    @Nullable
+    synchronized Object getPending(String key) {
+        return pendingChanges.get(key);
+    }
+
+    private void commitPending() {
+        Map<String, Object> changes;
+        List<Closure<Boolean>> callbacks;
+        List<CommitResult> results;
+
+        synchronized (this) {
+            changes = new LinkedHashMap<>(pendingChanges);
+            callbacks = new ArrayList<>(pendingCallbacks);
+            results = new ArrayList<>(pendingResults);
+            pendingCallbacks.clear();
+            pendingResults.clear();
+
+            // Changes from now on go to the next batch
+            batchScheduled = false;
+        }
+
+        SharedPreferences.Editor editor = preferences.edit();
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            putValue(editor, change.getKey(), change.getValue());
+        }
+
+        boolean committed = editor.commit();
+
+        if (committed) {
+            synchronized (this) {
+                // Only clear what was written, the same keys may have changed again in the meantime
+                for (Map.Entry<String, Object> change : changes.entrySet()) {
+                    if (pendingChanges.get(change.getKey()) == change.getValue()) {
+                        pendingChanges.remove(change.getKey());
+                    }
+                }
+            }
+        } else {
+            // Kept pending so that the reads still see them and the next batch writes them again
+            Log.e(Constants.TAG, "Failed to write " + changes.size() + " preference changes");
+        }
+
+        for (CommitResult result : results) {
+            result.complete(committed);
+        }
+
+        for (Closure<Boolean> callback : callbacks) {
+            callback.call(committed);
+        }
+    }
+
+    private static void putValue(SharedPreferences.Editor editor, String key, Object value) {
+        if (value == REMOVED) {
+            editor.remove(key);
+        } else if (value instanceof String) {
+            editor.putString(key, (String) value);
+        } else if (value instanceof Integer) {
+            editor.putInt(key, (Integer) value);
+        } else if (value instanceof Long) {
+            editor.putLong(key, (Long) value);
+        } else if (value instanceof Boolean) {
+            editor.putBoolean(key, (Boolean) value);
+        } else {
+            throw new IllegalArgumentException("Unsupported preference value for " + key + ": " + value);
+        }
+    }
+
+    /**
+     * Result of the commit for a single caller. Cancelling it is not supported as it would drop the changes of the
+     * other callers of the same batch.
+     */
+    private static final class CommitResult implements Future<Boolean> {
+
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile boolean committed;
+
+        void complete(boolean committed) {
+            this.committed = committed;
+            done.countDown();
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        @Override
+        public Boolean get() throws InterruptedException {
+            done.await();
+            return committed;
+        }
+
+        @Override
+        public Boolean get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+            if (!done.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+
+            return committed;
+        }
+    }
+}
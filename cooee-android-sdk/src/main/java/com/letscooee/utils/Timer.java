@@ -2,47 +2,71 @@ package com.letscooee.utils;
 
 import androidx.annotation.NonNull;
 
-import java.util.concurrent.Executors;
+import com.letscooee.task.CooeeExecutors;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Common implementation of {@link ScheduledExecutorService} to make it a timer or interval.
+ * Common implementation of {@link ScheduledExecutorService} to make it a timer or interval. All the timers share
+ * {@link CooeeExecutors#scheduler()} and {@link #stop()} only cancels the tasks of this timer.
  *
  * @author Ashish Gaikwad on 09/06/21
  * @version 0.3.0
  */
 public class Timer {
 
-    private final ScheduledExecutorService scheduledExecutor;
+    private final List<ScheduledFuture<?>> scheduledTasks = new ArrayList<>();
 
-    public Timer() {
-        scheduledExecutor = Executors.newScheduledThreadPool(1);
-    }
+    private boolean stopped;
 
     /**
      * Schedules a one-shot action that becomes enabled after the given delay.
      *
      * @param runnable       the task to execute
      * @param durationMillis the delay time in milliseconds
+     * @throws RejectedExecutionException if the timer is stopped
      */
-    public void schedule(@NonNull Runnable runnable, long durationMillis) {
-        scheduledExecutor.schedule(runnable, durationMillis, TimeUnit.MILLISECONDS);
+    public synchronized void schedule(@NonNull Runnable runnable, long durationMillis) {
+        if (stopped) {
+            throw new RejectedExecutionException("Timer is stopped");
+        }
+
+        Iterator<ScheduledFuture<?>> iterator = scheduledTasks.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isDone()) {
+                iterator.remove();
+            }
+        }
+
+        scheduledTasks.add(CooeeExecutors.getInstance().scheduler()
+                .schedule(runnable, durationMillis, TimeUnit.MILLISECONDS));
     }
 
     /**
-     * Stops all scheduled tasks and interrupts all threads.
+     * Stops all scheduled tasks and interrupts the running one (if any).
      */
-    public void stop() {
-        scheduledExecutor.shutdownNow();
+    public synchronized void stop() {
+        stopped = true;
+
+        for (ScheduledFuture<?> task : scheduledTasks) {
+            task.cancel(true);
+        }
+
+        scheduledTasks.clear();
     }
 
     /**
-     * Returns {@code true} if this executor has been shut down.
+     * Returns {@code true} if this timer has been stopped.
      *
-     * @return {@code true} if this executor has been shut down
+     * @return {@code true} if this timer has been stopped
      */
-    public boolean isShutdown() {
-        return scheduledExecutor.isShutdown();
+    public synchronized boolean isShutdown() {
+        return stopped;
     }
 }
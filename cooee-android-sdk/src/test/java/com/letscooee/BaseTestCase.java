@@ -17,6 +17,7 @@ import com.letscooee.room.CooeeDatabase;
 import com.letscooee.trigger.CooeeEmptyActivity;
 import com.letscooee.trigger.adapters.TriggerGsonDeserializer;
 import com.letscooee.utils.Constants;
+import com.letscooee.utils.MainThreadStorageDetector;
 import junit.framework.TestCase;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -32,6 +33,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Calendar;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 
@@ -68,6 +70,7 @@ public abstract class BaseTestCase extends TestCase {
         applicationInfo = context.getApplicationInfo();
         packageManager = context.getPackageManager();
         appInfo = AppInfo.getInstance(context);
+        MainThreadStorageDetector.reset();
 
         try {
             packageInfo = packageManager.getPackageInfo(context.getPackageName(), 0);
@@ -95,6 +98,21 @@ public abstract class BaseTestCase extends TestCase {
         database = null;
     }
 
+    /**
+     * Fail if any blocking storage call was made on the main thread since the start of the test (or the last
+     * {@link MainThreadStorageDetector#reset()}). Called explicitly by the tests of the code which must not block.
+     */
+    protected void assertNoMainThreadStorageCalls() {
+        List<Throwable> violations = MainThreadStorageDetector.getViolations();
+
+        if (!violations.isEmpty()) {
+            AssertionError error = new AssertionError(violations.size()
+                    + " blocking storage call(s) on the main thread, first: " + violations.get(0).getMessage());
+            error.initCause(violations.get(0));
+            throw error;
+        }
+    }
+
     protected void loadPayload() {
         try {
             InputStream inputStream = context.getAssets().open("payload_2.json");
@@ -0,0 +1,50 @@
+package com.letscooee.init;
+
+import android.os.SystemClock;
+import com.letscooee.BaseTestCase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class StartupTracerTest extends BaseTestCase {
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        StartupTracer.reset();
+    }
+
+    @Test
+    public void records_phases_in_order() {
+        long startTime = StartupTracer.begin(StartupTracer.PHASE_BOOTSTRAP);
+        long innerStartTime = StartupTracer.begin(StartupTracer.PHASE_FACTORY_INIT);
+        SystemClock.sleep(5);
+        StartupTracer.end(StartupTracer.PHASE_FACTORY_INIT, innerStartTime);
+        StartupTracer.end(StartupTracer.PHASE_BOOTSTRAP, startTime);
+
+        Map<String, Double> durations = StartupTracer.getDurations();
+        assertThat(durations.keySet())
+                .containsExactly(StartupTracer.PHASE_FACTORY_INIT, StartupTracer.PHASE_BOOTSTRAP)
+                .inOrder();
+        assertThat(durations.get(StartupTracer.PHASE_FACTORY_INIT)).isAtLeast(0.0);
+        assertThat(durations.get(StartupTracer.PHASE_BOOTSTRAP))
+                .isAtLeast(durations.get(StartupTracer.PHASE_FACTORY_INIT));
+    }
+
+    @Test
+    public void keeps_only_first_run_of_phase() {
+        long startTime = StartupTracer.begin(StartupTracer.PHASE_FIRST_SESSION);
+        StartupTracer.end(StartupTracer.PHASE_FIRST_SESSION, startTime);
+        double firstDuration = StartupTracer.getDurations().get(StartupTracer.PHASE_FIRST_SESSION);
+
+        startTime = StartupTracer.begin(StartupTracer.PHASE_FIRST_SESSION);
+        SystemClock.sleep(10);
+        StartupTracer.end(StartupTracer.PHASE_FIRST_SESSION, startTime);
+
+        assertThat(StartupTracer.getDurations()).containsExactly(StartupTracer.PHASE_FIRST_SESSION, firstDuration);
+    }
+}
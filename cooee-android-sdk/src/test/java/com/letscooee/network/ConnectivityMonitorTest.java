@@ -0,0 +1,118 @@
+package com.letscooee.network;
+
+import android.net.NetworkCapabilities;
+import androidx.work.Configuration;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.testing.SynchronousExecutor;
+import androidx.work.testing.WorkManagerTestInitHelper;
+import com.letscooee.BaseTestCase;
+import com.letscooee.schedular.SyncScheduler;
+import org.junit.Before;
+import org.junit.Test;
+import org.robolectric.shadows.ShadowNetworkCapabilities;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.robolectric.Shadows.shadowOf;
+
+public class ConnectivityMonitorTest extends BaseTestCase {
+
+    private static final ConnectionState WIFI = new ConnectionState(true, false, ConnectionState.TRANSPORT_WIFI,
+            false, 0, 0);
+
+    private ConnectivityMonitor monitor;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+
+        Configuration config = new Configuration.Builder()
+                .setExecutor(new SynchronousExecutor())
+                .build();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context, config);
+
+        monitor = new ConnectivityMonitor(context);
+    }
+
+    private List<WorkInfo> getSyncWork() throws Exception {
+        return WorkManager.getInstance(context).getWorkInfosForUniqueWork(SyncScheduler.UNIQUE_WORK_NAME).get();
+    }
+
+    @Test
+    public void reads_state_from_capabilities() {
+        NetworkCapabilities capabilities = ShadowNetworkCapabilities.newInstance();
+        shadowOf(capabilities).addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+        shadowOf(capabilities).addTransportType(NetworkCapabilities.TRANSPORT_CELLULAR);
+
+        ConnectionState state = ConnectionState.from(capabilities);
+        assertThat(state.isConnected()).isTrue();
+        assertThat(state.isMetered()).isTrue();
+        assertThat(state.isUnmetered()).isFalse();
+        assertThat(state.getTransport()).isEqualTo(ConnectionState.TRANSPORT_CELLULAR);
+
+        shadowOf(capabilities).addCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+        assertThat(ConnectionState.from(capabilities).isUnmetered()).isTrue();
+    }
+
+    @Test
+    public void wifi_behind_vpn_is_still_wifi() {
+        NetworkCapabilities capabilities = ShadowNetworkCapabilities.newInstance();
+        shadowOf(capabilities).addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+        shadowOf(capabilities).addTransportType(NetworkCapabilities.TRANSPORT_VPN);
+        shadowOf(capabilities).addTransportType(NetworkCapabilities.TRANSPORT_WIFI);
+
+        ConnectionState state = ConnectionState.from(capabilities);
+        assertThat(state.isWifi()).isTrue();
+        assertThat(state.isVpn()).isTrue();
+        assertThat(state.isUnmetered()).isTrue();
+    }
+
+    @Test
+    public void vpn_over_cellular_is_metered() {
+        NetworkCapabilities capabilities = ShadowNetworkCapabilities.newInstance();
+        shadowOf(capabilities).addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+        shadowOf(capabilities).addTransportType(NetworkCapabilities.TRANSPORT_VPN);
+        shadowOf(capabilities).addTransportType(NetworkCapabilities.TRANSPORT_CELLULAR);
+
+        ConnectionState state = ConnectionState.from(capabilities);
+        assertThat(state.getTransport()).isEqualTo(ConnectionState.TRANSPORT_CELLULAR);
+        assertThat(state.isVpn()).isTrue();
+        assertThat(state.isMetered()).isTrue();
+    }
+
+    @Test
+    public void no_internet_is_disconnected() {
+        NetworkCapabilities capabilities = ShadowNetworkCapabilities.newInstance();
+        shadowOf(capabilities).addTransportType(NetworkCapabilities.TRANSPORT_WIFI);
+
+        assertThat(ConnectionState.from(capabilities).isConnected()).isFalse();
+    }
+
+    @Test
+    public void keeps_state_in_memory() {
+        monitor.update(WIFI);
+        assertThat(monitor.isConnected()).isTrue();
+        assertThat(monitor.getState().isWifi()).isTrue();
+
+        monitor.update(ConnectionState.DISCONNECTED);
+        assertThat(monitor.isConnected()).isFalse();
+        assertThat(monitor.getState().getTransport()).isEqualTo(ConnectionState.TRANSPORT_NONE);
+    }
+
+    @Test
+    public void syncs_on_reconnect_once() throws Exception {
+        monitor.update(ConnectionState.DISCONNECTED);
+        assertThat(getSyncWork()).isEmpty();
+
+        monitor.update(WIFI);
+        assertThat(getSyncWork()).hasSize(1);
+
+        // Flapping network
+        monitor.update(ConnectionState.DISCONNECTED);
+        monitor.update(WIFI);
+        assertThat(getSyncWork()).hasSize(1);
+    }
+}
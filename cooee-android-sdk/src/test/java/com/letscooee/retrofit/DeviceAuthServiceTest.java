@@ -0,0 +1,184 @@
+package com.letscooee.retrofit;
+
+import com.letscooee.BaseTestCase;
+import com.letscooee.CooeeFactory;
+import com.letscooee.models.DeviceAuthResponse;
+import com.letscooee.utils.Closure;
+import com.letscooee.utils.Constants;
+import com.letscooee.utils.LocalStorageHelper;
+import com.letscooee.utils.MainThreadStorageDetector;
+import com.letscooee.utils.ManifestReader;
+import com.letscooee.utils.SentryHelper;
+import okhttp3.ResponseBody;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Response;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class DeviceAuthServiceTest extends BaseTestCase {
+
+    private DeviceAuthService deviceAuthService;
+    private List<Boolean> states;
+    private Closure<Boolean> listener;
+    private APIService apiService;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        CooeeFactory.init(context);
+        LocalStorageHelper.remove(context, Constants.STORAGE_SDK_TOKEN);
+
+        deviceAuthService = new DeviceAuthService(context, mock(SentryHelper.class),
+                ManifestReader.getInstance(context));
+        states = new ArrayList<>();
+        listener = states::add;
+    }
+
+    @Test
+    public void listener_gets_current_state_on_add() {
+        deviceAuthService.addTokenStateListener(listener);
+
+        assertThat(states).containsExactly(false);
+        assertThat(deviceAuthService.hasToken()).isFalse();
+    }
+
+    @Test
+    public void listener_gets_token_from_storage() {
+        deviceAuthService.addTokenStateListener(listener);
+        LocalStorageHelper.putString(context, Constants.STORAGE_SDK_TOKEN, "token-1");
+
+        deviceAuthService.populateUserDataFromStorage();
+        deviceAuthService.populateUserDataFromStorage();
+
+        // Notified only on the change
+        assertThat(states).containsExactly(false, true).inOrder();
+        assertThat(deviceAuthService.hasToken()).isTrue();
+    }
+
+    @Test
+    public void has_token_does_not_read_storage() {
+        LocalStorageHelper.putString(context, Constants.STORAGE_SDK_TOKEN, "token-1");
+        deviceAuthService.populateUserDataFromStorage();
+
+        LocalStorageHelper.remove(context, Constants.STORAGE_SDK_TOKEN);
+        MainThreadStorageDetector.reset();
+
+        assertThat(deviceAuthService.hasToken()).isTrue();
+        assertNoMainThreadStorageCalls();
+    }
+
+    @Test
+    public void removed_listener_is_not_notified() {
+        deviceAuthService.addTokenStateListener(listener);
+        deviceAuthService.removeTokenStateListener(listener);
+        LocalStorageHelper.putString(context, Constants.STORAGE_SDK_TOKEN, "token-1");
+
+        deviceAuthService.populateUserDataFromStorage();
+
+        assertThat(states).containsExactly(false);
+    }
+
+    @Test
+    public void token_changed_while_adding_is_delivered() {
+        LocalStorageHelper.putString(context, Constants.STORAGE_SDK_TOKEN, "token-1");
+
+        deviceAuthService.addTokenStateListener(hasToken -> {
+            states.add(hasToken);
+
+            if (states.size() == 1) {
+                // The token arrives right after the state was read for the first call
+                deviceAuthService.populateUserDataFromStorage();
+            }
+        });
+
+        assertThat(states).containsExactly(false, true).inOrder();
+    }
+
+    @SuppressWarnings("unchecked")
+    private DeviceAuthService withServer(CountDownLatch started, CountDownLatch release, String newToken)
+            throws Exception {
+        DeviceAuthResponse body = new DeviceAuthResponse();
+        body.setSdkToken(newToken);
+        body.setId("user-1");
+
+        Call<DeviceAuthResponse> call = mock(Call.class);
+        when(call.execute()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return newToken == null ? Response.error(500, ResponseBody.create(null, ""))
+                    : Response.success(body);
+        });
+
+        APIService apiService = mock(APIService.class);
+        when(apiService.registerDevice(any())).thenReturn(call);
+
+        ManifestReader manifestReader = mock(ManifestReader.class);
+        when(manifestReader.getAppID()).thenReturn("app-1");
+
+        this.apiService = apiService;
+        return new DeviceAuthService(context, mock(SentryHelper.class), manifestReader, apiService);
+    }
+
+    @Test
+    public void concurrent_refresh_and_await_share_one_request() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DeviceAuthService service = withServer(started, release, "token-2");
+        LocalStorageHelper.putString(context, Constants.STORAGE_SDK_TOKEN, "token-1");
+        service.populateUserDataFromStorage();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<>();
+        results.add(executor.submit(() -> service.refreshToken("token-1")));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        results.add(executor.submit(() -> service.refreshToken("token-1")));
+        results.add(executor.submit(() -> service.refreshToken("token-1")));
+        results.add(executor.submit(() -> service.awaitToken(DeviceAuthService.TOKEN_WAIT_TIMEOUT_MILLIS)));
+
+        // The rejected token is kept till the new one arrives
+        assertThat(service.hasToken()).isTrue();
+
+        release.countDown();
+        for (Future<Boolean> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+        executor.shutdown();
+
+        // Already refreshed, no new request
+        assertThat(service.refreshToken("token-1")).isTrue();
+        verify(apiService, times(1)).registerDevice(any());
+    }
+
+    @Test
+    public void failed_refresh_keeps_the_token_and_bypasses_limit_once() throws Exception {
+        CountDownLatch release = new CountDownLatch(0);
+        DeviceAuthService service = withServer(new CountDownLatch(1), release, null);
+        LocalStorageHelper.putString(context, Constants.STORAGE_SDK_TOKEN, "token-1");
+        LocalStorageHelper.putLong(context, Constants.STORAGE_LAST_TOKEN_ATTEMPT, new Date().getTime());
+        service.populateUserDataFromStorage();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        assertThat(executor.submit(() -> service.refreshToken("token-1")).get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(executor.submit(() -> service.refreshToken("token-1")).get(5, TimeUnit.SECONDS)).isFalse();
+        executor.shutdown();
+
+        // Only the first refresh skipped the 1 minute limit
+        verify(apiService, times(1)).registerDevice(any());
+        assertThat(service.hasToken()).isTrue();
+    }
+}
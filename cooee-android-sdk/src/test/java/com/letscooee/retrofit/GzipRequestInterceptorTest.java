@@ -0,0 +1,137 @@
+package com.letscooee.retrofit;
+
+import com.letscooee.BaseTestCase;
+import com.letscooee.models.Event;
+import com.letscooee.models.trigger.EmbeddedTrigger;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.*;
+
+public class GzipRequestInterceptorTest extends BaseTestCase {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=UTF-8");
+
+    private String eventJSON;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        GzipRequestInterceptor.setServerAcceptsGzip(false);
+        eventJSON = gson.toJson(createTypicalEvent());
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        GzipRequestInterceptor.setServerAcceptsGzip(false);
+        super.tearDown();
+    }
+
+    private Event createTypicalEvent() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("productID", "SKU-2663");
+        properties.put("price", 499.0);
+
+        ArrayList<EmbeddedTrigger> activeTriggers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            activeTriggers.add(new EmbeddedTrigger("6177a8b3e5b05b3c0c6c0e0" + i, "6177a8b3e5b05b3c0c6c0f0" + i,
+                    System.currentTimeMillis() + 60000));
+        }
+
+        Map<String, Object> storage = new HashMap<>();
+        storage.put("tot", 120000);
+        storage.put("avl", 64000);
+        Map<String, Object> deviceProps = new HashMap<>();
+        deviceProps.put("storage", storage);
+        deviceProps.put("mem", storage);
+        deviceProps.put("locale", "en-IN");
+        deviceProps.put("wifi", true);
+        deviceProps.put("bt", false);
+        deviceProps.put("orientation", "PORTRAIT");
+
+        Event event = new Event("Add To Cart", properties);
+        event.setSessionID("6177a8b3e5b05b3c0c6c0a0a");
+        event.setSessionNumber(42);
+        event.setScreenName("ProductDetails");
+        event.setActiveTriggers(activeTriggers);
+        event.setActiveTrigger(activeTriggers.get(0));
+        event.setDeviceProps(deviceProps);
+        return event;
+    }
+
+    private Request proceed(Interceptor interceptor, Request request, String acceptEncoding) throws IOException {
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+
+        Response.Builder response = new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK");
+        if (acceptEncoding != null) {
+            response.header(GzipRequestInterceptor.HEADER_ACCEPT_ENCODING, acceptEncoding);
+        }
+        when(chain.proceed(any(Request.class))).thenReturn(response.build());
+
+        interceptor.intercept(chain);
+
+        ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+        verify(chain).proceed(captor.capture());
+        return captor.getValue();
+    }
+
+    private Request createRequest(String json) {
+        return new Request.Builder()
+                .url("https://api.sdk.letscooee.com/v1/event/track")
+                .post(RequestBody.create(JSON, json))
+                .build();
+    }
+
+    @Test
+    public void compresses_only_after_server_opts_in() throws IOException {
+        GzipRequestInterceptor interceptor = new GzipRequestInterceptor();
+
+        Request sent = proceed(interceptor, createRequest(eventJSON), "gzip");
+        assertThat(sent.header("Content-Encoding")).isNull();
+
+        sent = proceed(interceptor, createRequest(eventJSON), null);
+        assertThat(sent.header("Content-Encoding")).isEqualTo("gzip");
+        assertThat(sent.body().contentLength()).isLessThan((long) eventJSON.length());
+    }
+
+    @Test
+    public void small_body_is_not_compressed() throws IOException {
+        GzipRequestInterceptor.setServerAcceptsGzip(true);
+
+        Request sent = proceed(new GzipRequestInterceptor(), createRequest("{\"name\":\"test\"}"), null);
+        assertThat(sent.header("Content-Encoding")).isNull();
+    }
+
+    @Test
+    public void typical_event_is_compressed_to_less_than_half() throws IOException {
+        RequestBody body = GzipRequestInterceptor.gzip(RequestBody.create(JSON, eventJSON));
+
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+
+        assertThat(buffer.size()).isEqualTo(body.contentLength());
+        assertThat(body.contentLength()).isLessThan(eventJSON.length() / 2L);
+    }
+}
@@ -0,0 +1,117 @@
+package com.letscooee.retrofit;
+
+import android.os.SystemClock;
+import com.letscooee.BaseTestCase;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.*;
+
+public class SDKHeaderInterceptorTest extends BaseTestCase {
+
+    private SDKHeaderInterceptor interceptor;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        interceptor = new SDKHeaderInterceptor("Pixel 6 Pro", true);
+        interceptor.update("token-1", "user-1", "1.0.0", "");
+    }
+
+    private Request createRequest(String path) {
+        return new Request.Builder()
+                .url("https://api.sdk.letscooee.com" + path)
+                .get()
+                .build();
+    }
+
+    @Test
+    public void adds_auth_headers_to_private_api() {
+        Request request = interceptor.prepare(createRequest("/v1/event/track"));
+
+        assertThat(request.header("x-sdk-token")).isEqualTo("token-1");
+        assertThat(request.header("user-id")).isEqualTo("user-1");
+        assertThat(request.header("device-name")).isEqualTo("Pixel+6+Pro");
+        assertThat(request.header("app-version")).isEqualTo("1.0.0");
+        assertThat(request.header("app-debug")).isEqualTo("1");
+        assertThat(request.header("sdk-wrapper")).isNull();
+    }
+
+    @Test
+    public void skips_auth_headers_for_public_api() {
+        Request request = interceptor.prepare(createRequest(SDKHeaderInterceptor.PUBLIC_API_PATH));
+
+        assertThat(request.header("x-sdk-token")).isNull();
+        assertThat(request.header("user-id")).isNull();
+        assertThat(request.header("device-name")).isEqualTo("Pixel+6+Pro");
+    }
+
+    @Test
+    public void headers_are_rebuilt_only_on_update() {
+        Headers headers = interceptor.getHeaders(false);
+        interceptor.prepare(createRequest("/v1/event/track"));
+        assertThat(interceptor.getHeaders(false)).isSameInstanceAs(headers);
+
+        interceptor.update("token-2", "user-1", "1.0.0", "flutter-1.3.0");
+        assertThat(interceptor.getHeaders(false)).isNotSameInstanceAs(headers);
+
+        Request request = interceptor.prepare(createRequest("/v1/event/track"));
+        assertThat(request.header("x-sdk-token")).isEqualTo("token-2");
+        assertThat(request.header("sdk-wrapper")).isEqualTo("flutter-1.3.0");
+    }
+
+    @Test
+    public void keeps_request_specific_headers() {
+        Request original = createRequest("/v1/event/track").newBuilder()
+                .header("Content-Encoding", "gzip")
+                .build();
+
+        Request request = interceptor.prepare(original);
+        assertThat(request.header("Content-Encoding")).isEqualTo("gzip");
+        assertThat(request.header("x-sdk-token")).isEqualTo("token-1");
+    }
+
+    private void intercept(String path, int code) throws IOException {
+        Request request = createRequest(path);
+        Response response = new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .build();
+
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any(Request.class))).thenReturn(response);
+
+        interceptor.intercept(chain);
+    }
+
+    @Test
+    public void tracks_only_successful_authenticated_requests() throws IOException {
+        intercept("/v1/event/track", 200);
+        long lastSuccess = SDKHeaderInterceptor.getLastAuthenticatedSuccessAt();
+        assertThat(lastSuccess).isGreaterThan(0L);
+
+        SystemClock.sleep(1000);
+        intercept("/v1/event/track", 500);
+        intercept(SDKHeaderInterceptor.PUBLIC_API_PATH, 200);
+        assertThat(SDKHeaderInterceptor.getLastAuthenticatedSuccessAt()).isEqualTo(lastSuccess);
+    }
+
+    @Test
+    public void prepares_all_the_cached_headers() {
+        Request prepared = interceptor.prepare(createRequest("/v1/event/track"));
+
+        assertThat(prepared.headers().size()).isEqualTo(interceptor.getHeaders(false).size());
+    }
+}
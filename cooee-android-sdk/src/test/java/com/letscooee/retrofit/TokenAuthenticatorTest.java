@@ -0,0 +1,97 @@
+package com.letscooee.retrofit;
+
+import com.letscooee.BaseTestCase;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class TokenAuthenticatorTest extends BaseTestCase {
+
+    private SDKHeaderInterceptor interceptor;
+    private TokenAuthenticator authenticator;
+    private List<String> rejectedTokens;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        interceptor = new SDKHeaderInterceptor("Pixel 6 Pro", false);
+        interceptor.update("token-1", "user-1", "1.0.0", "");
+        authenticator = new TokenAuthenticator(interceptor);
+        rejectedTokens = new ArrayList<>();
+    }
+
+    private void refreshTo(String token, String userId) {
+        authenticator.setTokenRefresher(rejectedToken -> {
+            rejectedTokens.add(rejectedToken);
+            interceptor.update(token, userId, "1.0.0", "");
+            return true;
+        });
+    }
+
+    private Response unauthorized(String path) {
+        Request request = interceptor.prepare(new Request.Builder()
+                .url("https://api.sdk.letscooee.com" + path)
+                .get()
+                .build());
+
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(401)
+                .message("Unauthorized")
+                .build();
+    }
+
+    @Test
+    public void replays_with_refreshed_token() {
+        refreshTo("token-2", "user-2");
+
+        Request retry = authenticator.authenticate(null, unauthorized("/v1/event/track"));
+
+        assertThat(rejectedTokens).containsExactly("token-1");
+        assertThat(retry).isNotNull();
+        assertThat(retry.headers("x-sdk-token")).containsExactly("token-2");
+        assertThat(retry.headers("user-id")).containsExactly("user-2");
+        assertThat(retry.url().encodedPath()).isEqualTo("/v1/event/track");
+    }
+
+    @Test
+    public void gives_up_when_refresh_fails() {
+        authenticator.setTokenRefresher(rejectedToken -> false);
+
+        assertThat(authenticator.authenticate(null, unauthorized("/v1/event/track"))).isNull();
+    }
+
+    @Test
+    public void gives_up_without_refresher() {
+        assertThat(authenticator.authenticate(null, unauthorized("/v1/event/track"))).isNull();
+    }
+
+    @Test
+    public void refreshes_only_once_per_request() {
+        refreshTo("token-2", "user-2");
+        Response first = unauthorized("/v1/event/track");
+        Response second = unauthorized("/v1/event/track").newBuilder()
+                .priorResponse(first)
+                .build();
+
+        assertThat(authenticator.authenticate(null, second)).isNull();
+        assertThat(rejectedTokens).isEmpty();
+    }
+
+    @Test
+    public void ignores_public_api() {
+        refreshTo("token-2", "user-2");
+
+        assertThat(authenticator.authenticate(null, unauthorized(SDKHeaderInterceptor.PUBLIC_API_PATH))).isNull();
+        assertThat(rejectedTokens).isEmpty();
+    }
+}
@@ -0,0 +1,110 @@
+package com.letscooee.room;
+
+import android.database.Cursor;
+import androidx.room.Room;
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.framework.FrameworkSQLiteOpenHelperFactory;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.letscooee.BaseTestCase;
+import com.letscooee.room.task.PendingTask;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class CooeeDatabaseMigrationTest extends BaseTestCase {
+
+    private static final String TEST_DB = "migration-test";
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(),
+            CooeeDatabase.class.getCanonicalName(),
+            new FrameworkSQLiteOpenHelperFactory()
+    );
+
+    @Test
+    public void migrate_1_to_2() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 1);
+        db.execSQL("INSERT INTO PendingTask (attempts, date_created, data, last_attempted, type) " +
+                "VALUES (0, 1000, '{}', 0, 'API_SEND_EVENT')");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 2, true, CooeeDatabase.MIGRATION_1_2);
+
+        Cursor cursor = db.query("SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = 'PendingTask'");
+        assertThat(cursor.getCount()).isAtLeast(4);
+        cursor.close();
+
+        cursor = db.query("SELECT * FROM PendingTask");
+        assertThat(cursor.getCount()).isEqualTo(1);
+        cursor.close();
+    }
+
+    @Test
+    public void migrate_2_to_3() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 2);
+        db.execSQL("INSERT INTO PendingTask (attempts, date_created, data, last_attempted, type) " +
+                "VALUES (2, 1000, '{}', 2000, 'API_SEND_EVENT')");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 3, true, CooeeDatabase.MIGRATION_2_3);
+
+        Cursor cursor = db.query("SELECT next_attempt_at FROM PendingTask");
+        assertThat(cursor.moveToFirst()).isTrue();
+        assertThat(cursor.getLong(0)).isEqualTo(0);
+        cursor.close();
+    }
+
+    @Test
+    public void migrate_3_to_4() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 3);
+        db.execSQL("INSERT INTO PendingTask (attempts, date_created, data, last_attempted, type) " +
+                "VALUES (0, 1000, '{\"name\":\"test\"}', 0, 'API_SEND_EVENT')");
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 4, true, CooeeDatabase.MIGRATION_3_4);
+
+        Cursor cursor = db.query("SELECT data, payload, format FROM PendingTask");
+        assertThat(cursor.moveToFirst()).isTrue();
+        assertThat(cursor.getString(0)).isEqualTo("{\"name\":\"test\"}");
+        assertThat(cursor.isNull(1)).isTrue();
+        assertThat(cursor.getInt(2)).isEqualTo(0);
+        cursor.close();
+    }
+
+    @Test
+    public void migrate_4_to_5() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 4);
+        db.close();
+
+        db = helper.runMigrationsAndValidate(TEST_DB, 5, true, CooeeDatabase.MIGRATION_4_5);
+
+        db.execSQL("INSERT INTO StoredItem (collection, item_key, value, date_updated) " +
+                "VALUES ('cached_fonts', 'Roboto', '{}', 1000)");
+        Cursor cursor = db.query("SELECT expire_at FROM StoredItem");
+        assertThat(cursor.moveToFirst()).isTrue();
+        assertThat(cursor.getLong(0)).isEqualTo(0);
+        cursor.close();
+    }
+
+    @Test
+    public void migrate_all() throws IOException {
+        SupportSQLiteDatabase db = helper.createDatabase(TEST_DB, 1);
+        db.close();
+
+        CooeeDatabase database = Room.databaseBuilder(context, CooeeDatabase.class, TEST_DB)
+                .addMigrations(CooeeDatabase.MIGRATIONS)
+                .allowMainThreadQueries()
+                .build();
+
+        // Opening the database runs all migrations and validates the schema against the entities
+        List<PendingTask> tasks = database.pendingTaskDAO().fetchPending();
+        assertThat(tasks).isEmpty();
+        database.close();
+    }
+}
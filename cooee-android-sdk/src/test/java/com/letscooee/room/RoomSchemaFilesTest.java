@@ -0,0 +1,61 @@
+package com.letscooee.room;
+
+import android.database.Cursor;
+import androidx.room.Room;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.letscooee.BaseTestCase;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class RoomSchemaFilesTest extends BaseTestCase {
+
+    private static final int[] VERSIONS = {1, 2, 3, 4, 5};
+
+    private JsonObject readSchema(int version) throws IOException {
+        String path = CooeeDatabase.class.getCanonicalName() + "/" + version + ".json";
+
+        try (InputStream stream = context.getAssets().open(path)) {
+            return new JsonParser().parse(new InputStreamReader(stream, StandardCharsets.UTF_8))
+                    .getAsJsonObject()
+                    .getAsJsonObject("database");
+        }
+    }
+
+    @Test
+    public void latest_schema_is_the_one_generated_by_room() throws IOException {
+        database = Room.inMemoryDatabaseBuilder(context, CooeeDatabase.class).allowMainThreadQueries().build();
+        int generatedVersion;
+        String generatedHash;
+
+        try (Cursor cursor = database.query("SELECT identity_hash FROM room_master_table WHERE id = 42", null)) {
+            assertThat(cursor.moveToFirst()).isTrue();
+            generatedHash = cursor.getString(0);
+            generatedVersion = database.getOpenHelper().getReadableDatabase().getVersion();
+        } finally {
+            database.close();
+        }
+
+        JsonObject latest = readSchema(VERSIONS[VERSIONS.length - 1]);
+        assertThat(latest.get("version").getAsInt()).isEqualTo(generatedVersion);
+        assertThat(latest.get("identityHash").getAsString()).isEqualTo(generatedHash);
+    }
+
+    @Test
+    public void identity_hash_matches_the_entities() throws IOException {
+        for (int version : VERSIONS) {
+            JsonObject database = readSchema(version);
+            String identityHash = database.get("identityHash").getAsString();
+
+            assertThat(database.get("version").getAsInt()).isEqualTo(version);
+            assertThat(RoomSchemaIdentity.compute(database)).isEqualTo(identityHash);
+            assertThat(database.getAsJsonArray("setupQueries").toString()).contains(identityHash);
+        }
+    }
+}
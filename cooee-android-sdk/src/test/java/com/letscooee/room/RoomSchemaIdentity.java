@@ -0,0 +1,113 @@
+package com.letscooee.room;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Computes the <code>identityHash</code> of an exported Room schema from its entities the same way as the Room
+ * annotation processor (<code>SchemaIdentityKey</code>) does. Used to check that the schema files describe the
+ * entities they claim to and are not edited by hand.
+ *
+ * @since 1.3.12
+ */
+class RoomSchemaIdentity {
+
+    private static final String SEPARATOR = "?:?";
+    private static final Collator ENGLISH_SORT = Collator.getInstance(Locale.ENGLISH);
+
+    private final StringBuilder key = new StringBuilder();
+
+    /**
+     * @param database The <code>database</code> object of an exported schema.
+     * @return The identity hash of the schema.
+     */
+    static String compute(JsonObject database) {
+        List<String> entityKeys = new ArrayList<>();
+        for (JsonElement entity : database.getAsJsonArray("entities")) {
+            entityKeys.add(entityKey(entity.getAsJsonObject()));
+        }
+
+        RoomSchemaIdentity identity = new RoomSchemaIdentity();
+        identity.appendSorted(entityKeys);
+        return identity.hash();
+    }
+
+    private static String entityKey(JsonObject entity) {
+        RoomSchemaIdentity identity = new RoomSchemaIdentity();
+        identity.append(entity.get("tableName").getAsString());
+
+        JsonObject primaryKey = entity.getAsJsonObject("primaryKey");
+        identity.append(primaryKey.get("autoGenerate").getAsBoolean() + "-"
+                + toList(primaryKey.getAsJsonArray("columnNames")));
+
+        List<String> fieldKeys = new ArrayList<>();
+        for (JsonElement element : entity.getAsJsonArray("fields")) {
+            JsonObject field = element.getAsJsonObject();
+            String fieldKey = field.get("columnName").getAsString() + "-" + field.get("affinity").getAsString()
+                    + "-" + field.get("notNull").getAsBoolean();
+
+            if (field.has("defaultValue")) {
+                fieldKey += "-defaultValue=" + field.get("defaultValue").getAsString();
+            }
+
+            fieldKeys.add(fieldKey);
+        }
+        identity.appendSorted(fieldKeys);
+
+        List<String> indexKeys = new ArrayList<>();
+        for (JsonElement element : entity.getAsJsonArray("indices")) {
+            JsonObject index = element.getAsJsonObject();
+            indexKeys.add(index.get("unique").getAsBoolean() + "-" + index.get("name").getAsString() + "-"
+                    + String.join(",", toList(index.getAsJsonArray("columnNames"))));
+        }
+        identity.appendSorted(indexKeys);
+
+        // Foreign keys are not used by the SDK
+        identity.appendSorted(new ArrayList<>());
+
+        return identity.hash();
+    }
+
+    private static List<String> toList(JsonArray array) {
+        List<String> values = new ArrayList<>();
+        for (JsonElement element : array) {
+            values.add(element.getAsString());
+        }
+        return values;
+    }
+
+    private void append(String identityKey) {
+        key.append(identityKey).append(SEPARATOR);
+    }
+
+    private void appendSorted(List<String> identityKeys) {
+        List<String> sorted = new ArrayList<>(identityKeys);
+        sorted.sort(ENGLISH_SORT);
+
+        for (String identityKey : sorted) {
+            append(identityKey);
+        }
+    }
+
+    private String hash() {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.letscooee.room.task;
+
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class PendingTaskCodecTest {
+
+    @Test
+    public void small_json_is_not_compressed() {
+        PendingTask task = new PendingTask();
+        PendingTaskCodec.encode(task, "{\"name\":\"test\"}");
+
+        assertThat(task.format).isEqualTo(PendingTaskCodec.FORMAT_JSON);
+        assertThat(task.payload).isNull();
+        assertThat(PendingTaskCodec.decode(task)).isEqualTo("{\"name\":\"test\"}");
+    }
+
+    @Test
+    public void large_json_is_compressed() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 50; i++) {
+            json.append("{\"triggerID\":\"6177a8b3e5b05b3c0c6c0e0d\",\"engagementID\":\"ünïcödé\"},");
+        }
+        json.append("{}]");
+
+        PendingTask task = new PendingTask();
+        PendingTaskCodec.encode(task, json.toString());
+
+        assertThat(task.format).isEqualTo(PendingTaskCodec.FORMAT_GZIP_JSON);
+        assertThat(task.data).isNull();
+        assertThat(task.payload.length).isLessThan(json.length());
+        assertThat(PendingTaskCodec.decode(task)).isEqualTo(json.toString());
+    }
+
+    @Test
+    public void legacy_row_is_readable() {
+        PendingTask task = new PendingTask();
+        task.data = "{}";
+
+        assertThat(PendingTaskCodec.decode(task)).isEqualTo("{}");
+    }
+}
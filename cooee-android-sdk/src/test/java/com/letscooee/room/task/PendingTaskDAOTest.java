@@ -0,0 +1,115 @@
+package com.letscooee.room.task;
+
+import androidx.room.Room;
+import com.letscooee.BaseTestCase;
+import com.letscooee.room.CooeeDatabase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class PendingTaskDAOTest extends BaseTestCase {
+
+    private PendingTaskDAO dao;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        database = Room.inMemoryDatabaseBuilder(context, CooeeDatabase.class).allowMainThreadQueries().build();
+        dao = database.pendingTaskDAO();
+    }
+
+    private PendingTask insert(PendingTaskType type, long dateCreated) {
+        PendingTask task = new PendingTask();
+        task.type = type;
+        task.attempts = 0;
+        task.dateCreated = dateCreated;
+        task.data = "{}";
+        task.id = dao.insert(task);
+        return task;
+    }
+
+    private List<Long> ids(List<PendingTask> tasks) {
+        List<Long> ids = new ArrayList<>();
+        for (PendingTask task : tasks) {
+            ids.add(task.id);
+        }
+        return ids;
+    }
+
+    @Test
+    public void sql_priority_matches_the_enum() {
+        long now = new Date().getTime();
+        for (PendingTaskType type : PendingTaskType.values()) {
+            insert(type, now);
+        }
+
+        List<PendingTaskType> expected = new ArrayList<>(Arrays.asList(PendingTaskType.values()));
+        Collections.sort(expected, (a, b) -> Integer.compare(a.getPriority(), b.getPriority()));
+
+        List<PendingTaskType> actual = new ArrayList<>();
+        for (PendingTask task : dao.fetchPendingPage(now, 10)) {
+            actual.add(task.type);
+        }
+
+        assertThat(actual).containsExactlyElementsIn(expected).inOrder();
+    }
+
+    @Test
+    public void eviction_follows_the_enum_priority() {
+        long now = new Date().getTime();
+        for (PendingTaskType type : PendingTaskType.values()) {
+            insert(type, now);
+        }
+
+        PendingTaskType lowest = PendingTaskType.values()[0];
+        for (PendingTaskType type : PendingTaskType.values()) {
+            if (type.getPriority() > lowest.getPriority()) {
+                lowest = type;
+            }
+        }
+
+        assertThat(dao.evict(1)).isEqualTo(1);
+        for (PendingTask task : dao.fetchPending()) {
+            assertThat(task.type).isNotEqualTo(lowest);
+        }
+    }
+
+    @Test
+    public void keyset_page_boundary_on_the_same_creation_date() {
+        long now = new Date().getTime();
+        PendingTask first = insert(PendingTaskType.API_SEND_EVENT, now - 1000);
+        PendingTask second = insert(PendingTaskType.API_SEND_EVENT, now);
+        PendingTask third = insert(PendingTaskType.API_SEND_EVENT, now);
+        insert(PendingTaskType.API_UPDATE_PROFILE, now);
+        String type = PendingTaskType.API_SEND_EVENT.name();
+
+        List<PendingTask> page = dao.fetchPendingPageOfType(type, Long.MIN_VALUE, Long.MIN_VALUE, now, 2);
+        assertThat(ids(page)).containsExactly(first.id, second.id).inOrder();
+
+        // The boundary falls between two tasks created at the same time
+        page = dao.fetchPendingPageOfType(type, second.dateCreated, second.id, now, 2);
+        assertThat(ids(page)).containsExactly(third.id);
+
+        page = dao.fetchPendingPageOfType(type, third.dateCreated, third.id, now, 2);
+        assertThat(page).isEmpty();
+    }
+
+    @Test
+    public void page_skips_tasks_backing_off() {
+        long now = new Date().getTime();
+        PendingTask task = insert(PendingTaskType.API_SEND_EVENT, now);
+        task.nextAttemptAt = now + 60 * 1000;
+        dao.updateByObject(task);
+
+        String type = PendingTaskType.API_SEND_EVENT.name();
+        assertThat(dao.fetchPendingPageOfType(type, Long.MIN_VALUE, Long.MIN_VALUE, now, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,69 @@
+package com.letscooee.room.task;
+
+import androidx.room.Room;
+import com.letscooee.BaseTestCase;
+import com.letscooee.room.CooeeDatabase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class PendingTaskRetentionTest extends BaseTestCase {
+
+    private PendingTaskDAO dao;
+    private PendingTaskRetention retention;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        database = Room.inMemoryDatabaseBuilder(context, CooeeDatabase.class).allowMainThreadQueries().build();
+        dao = database.pendingTaskDAO();
+        retention = new PendingTaskRetention(context, database);
+    }
+
+    private PendingTask insert(PendingTaskType type, int attempts, long dateCreated) {
+        PendingTask task = new PendingTask();
+        task.type = type;
+        task.attempts = attempts;
+        task.dateCreated = dateCreated;
+        task.data = "{}";
+        task.id = dao.insert(task);
+        return task;
+    }
+
+    @Test
+    public void drops_dead_and_expired_tasks() {
+        long now = new Date().getTime();
+        insert(PendingTaskType.API_SEND_EVENT, PendingTaskDAO.MAX_ATTEMPTS, now);
+        insert(PendingTaskType.API_SEND_EVENT, 0, now - TimeUnit.DAYS.toMillis(8));
+        PendingTask alive = insert(PendingTaskType.API_SEND_EVENT, 0, now);
+
+        assertThat(retention.enforce()).isEqualTo(2);
+
+        List<PendingTask> tasks = dao.fetchPending();
+        assertThat(tasks).hasSize(1);
+        assertThat(tasks.get(0).id).isEqualTo(alive.id);
+        assertThat(retention.getTotalDropped()).isEqualTo(2);
+    }
+
+    @Test
+    public void evicts_lowest_priority_first() {
+        long now = new Date().getTime();
+        PendingTask profile = insert(PendingTaskType.API_UPDATE_PROFILE, 0, now - 1000);
+        insert(PendingTaskType.API_SEND_EVENT, 0, now - 1000);
+        PendingTask newerEvent = insert(PendingTaskType.API_SEND_EVENT, 0, now);
+
+        retention.setMaxRows(2);
+        assertThat(retention.enforce()).isEqualTo(1);
+
+        List<PendingTask> tasks = dao.fetchPendingPage(now, 10);
+        assertThat(tasks).hasSize(2);
+        assertThat(tasks.get(0).id).isEqualTo(profile.id);
+        assertThat(tasks.get(1).id).isEqualTo(newerEvent.id);
+    }
+}
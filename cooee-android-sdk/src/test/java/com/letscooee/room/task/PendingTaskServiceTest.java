@@ -0,0 +1,240 @@
+package com.letscooee.room.task;
+
+import androidx.annotation.NonNull;
+import com.letscooee.BaseTestCase;
+import com.letscooee.room.CooeeDatabase;
+import com.letscooee.room.task.processor.BatchPendingTaskProcessor;
+import com.letscooee.room.task.processor.PendingTaskProcessor;
+import com.letscooee.utils.SentryHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class PendingTaskServiceTest extends BaseTestCase {
+
+    private PendingTaskService pendingTaskService;
+    private List<PendingTaskType> processed;
+    private List<Integer> batchSizes;
+    private CountDownLatch batchSent;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        database = CooeeDatabase.getInstance(context);
+        database.clearAllTables();
+
+        pendingTaskService = new PendingTaskService(context, mock(SentryHelper.class));
+        processed = Collections.synchronizedList(new ArrayList<>());
+        batchSizes = Collections.synchronizedList(new ArrayList<>());
+        batchSent = new CountDownLatch(1);
+    }
+
+    /**
+     * A batch processor which records the size of every batch.
+     */
+    private BatchPendingTaskProcessor recordingBatchProcessor() {
+        return new BatchPendingTaskProcessor() {
+            @Override
+            public void processBatch(@NonNull List<PendingTask> tasks) {
+                batchSizes.add(tasks.size());
+                batchSent.countDown();
+            }
+
+            @Override
+            public void process(@NonNull PendingTask task) {
+                processed.add(task.type);
+            }
+
+            @Override
+            public boolean canProcess(@NonNull PendingTask task) {
+                return true;
+            }
+        };
+    }
+
+    private PendingTask newEventTask() {
+        return pendingTaskService.newTask(new HashMap<>(), PendingTaskType.API_SEND_EVENT);
+    }
+
+    /**
+     * A processor which waits for the other type to be processed at the same time.
+     */
+    private PendingTaskProcessor meetingProcessor(CyclicBarrier barrier) {
+        return new PendingTaskProcessor() {
+            @Override
+            public void process(@NonNull PendingTask task) {
+                try {
+                    barrier.await(5, TimeUnit.SECONDS);
+                    processed.add(task.type);
+                } catch (Exception e) {
+                    // Never met, processed serially
+                }
+            }
+
+            @Override
+            public boolean canProcess(@NonNull PendingTask task) {
+                return true;
+            }
+        };
+    }
+
+    @Test
+    public void types_are_processed_concurrently() {
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        pendingTaskService.getProcessorRegistry().register(PendingTaskType.API_UPDATE_PROFILE,
+                meetingProcessor(barrier));
+        pendingTaskService.getProcessorRegistry().register(PendingTaskType.API_DEVICE_PROPERTY,
+                meetingProcessor(barrier));
+
+        pendingTaskService.newTask(new HashMap<>(), PendingTaskType.API_UPDATE_PROFILE);
+        pendingTaskService.newTask(new HashMap<>(), PendingTaskType.API_DEVICE_PROPERTY);
+
+        pendingTaskService.processPendingTasks();
+
+        assertThat(processed).containsExactly(PendingTaskType.API_UPDATE_PROFILE,
+                PendingTaskType.API_DEVICE_PROPERTY);
+    }
+
+    @Test
+    public void every_type_is_paged_separately() {
+        pendingTaskService.setFetchPageSize(2);
+        for (int i = 0; i < 3; i++) {
+            pendingTaskService.newTask(new HashMap<>(), PendingTaskType.API_UPDATE_PROFILE);
+            pendingTaskService.newTask(new HashMap<>(), PendingTaskType.API_DEVICE_PROPERTY);
+        }
+
+        List<PendingTask> firstPage = pendingTaskService.fetchPendingPage(PendingTaskType.API_DEVICE_PROPERTY, null);
+        List<PendingTask> lastPage = pendingTaskService.fetchPendingPage(PendingTaskType.API_DEVICE_PROPERTY,
+                firstPage.get(1));
+
+        assertThat(firstPage).hasSize(2);
+        assertThat(lastPage).hasSize(1);
+        assertThat(lastPage.get(0).id).isGreaterThan(firstPage.get(1).id);
+        for (PendingTask task : firstPage) {
+            assertThat(task.type).isEqualTo(PendingTaskType.API_DEVICE_PROPERTY);
+        }
+    }
+
+    @Test
+    public void full_batch_is_sent_right_away() throws Exception {
+        pendingTaskService.getProcessorRegistry().register(PendingTaskType.API_SEND_EVENT, recordingBatchProcessor());
+
+        for (int i = 0; i < PendingTaskService.EVENT_BATCH_MAX_SIZE; i++) {
+            pendingTaskService.queueForBatch(newEventTask());
+        }
+
+        assertThat(batchSent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(batchSizes).containsExactly(PendingTaskService.EVENT_BATCH_MAX_SIZE);
+        assertThat(pendingTaskService.hasQueuedEvents()).isFalse();
+    }
+
+    @Test
+    public void partial_batch_is_sent_after_max_age() throws Exception {
+        pendingTaskService.getProcessorRegistry().register(PendingTaskType.API_SEND_EVENT, recordingBatchProcessor());
+        pendingTaskService.setEventBatchMaxAge(100);
+
+        pendingTaskService.queueForBatch(newEventTask());
+        pendingTaskService.queueForBatch(newEventTask());
+        assertThat(pendingTaskService.hasQueuedEvents()).isTrue();
+
+        assertThat(batchSent.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(batchSizes).containsExactly(2);
+        assertThat(pendingTaskService.hasQueuedEvents()).isFalse();
+    }
+
+    @Test
+    public void job_sends_stored_events_in_chunks() {
+        pendingTaskService.getProcessorRegistry().register(PendingTaskType.API_SEND_EVENT, recordingBatchProcessor());
+        for (int i = 0; i < PendingTaskService.EVENT_BATCH_MAX_SIZE * 2 + 20; i++) {
+            newEventTask();
+        }
+
+        pendingTaskService.processPendingTasks();
+
+        // Pages of 100 tasks split in the bulk requests of 50
+        assertThat(batchSizes).containsExactly(50, 50, 20).inOrder();
+    }
+
+    @Test
+    public void batch_falls_back_to_single_tasks_without_batch_processor() {
+        pendingTaskService.getProcessorRegistry().register(PendingTaskType.API_SEND_EVENT,
+                new PendingTaskProcessor() {
+                    @Override
+                    public void process(@NonNull PendingTask task) {
+                        processed.add(task.type);
+                    }
+
+                    @Override
+                    public boolean canProcess(@NonNull PendingTask task) {
+                        return true;
+                    }
+                });
+
+        List<PendingTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tasks.add(newEventTask());
+        }
+
+        pendingTaskService.processBatch(tasks);
+
+        assertThat(processed).hasSize(3);
+    }
+
+    @Test
+    public void failed_batch_keeps_the_tasks_to_be_retried_individually() {
+        pendingTaskService.getProcessorRegistry().register(PendingTaskType.API_SEND_EVENT,
+                new BatchPendingTaskProcessor() {
+                    @Override
+                    public void processBatch(@NonNull List<PendingTask> tasks) {
+                        throw new IllegalStateException("Server down");
+                    }
+
+                    @Override
+                    public void process(@NonNull PendingTask task) {
+                        processed.add(task.type);
+                    }
+
+                    @Override
+                    public boolean canProcess(@NonNull PendingTask task) {
+                        return true;
+                    }
+                });
+
+        List<PendingTask> tasks = new ArrayList<>();
+        tasks.add(newEventTask());
+        tasks.add(newEventTask());
+
+        pendingTaskService.processBatch(tasks);
+
+        assertThat(database.pendingTaskDAO().fetchPending()).hasSize(2);
+
+        // Not held as being processed after the failure
+        pendingTaskService.processTask(tasks.get(0));
+        assertThat(processed).containsExactly(PendingTaskType.API_SEND_EVENT);
+    }
+
+    @Test
+    public void queued_events_are_not_sent_by_the_job() {
+        pendingTaskService.getProcessorRegistry().register(PendingTaskType.API_SEND_EVENT, recordingBatchProcessor());
+        pendingTaskService.queueForBatch(newEventTask());
+        pendingTaskService.queueForBatch(newEventTask());
+
+        pendingTaskService.processPendingTasks();
+        assertThat(batchSizes).isEmpty();
+
+        // Sent only once, by the batch
+        pendingTaskService.flushEventBatch();
+        assertThat(batchSizes).containsExactly(2);
+    }
+}
@@ -0,0 +1,79 @@
+package com.letscooee.room.task;
+
+import androidx.room.Room;
+import com.letscooee.BaseTestCase;
+import com.letscooee.room.CooeeDatabase;
+import com.letscooee.utils.SentryHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PendingTaskWriterTest extends BaseTestCase {
+
+    private PendingTaskDAO dao;
+    private PendingTaskDAO failingDAO;
+    private ScheduledExecutorService scheduler;
+    private PendingTaskWriter writer;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        database = Room.inMemoryDatabaseBuilder(context, CooeeDatabase.class).allowMainThreadQueries().build();
+        dao = database.pendingTaskDAO();
+        failingDAO = spy(dao);
+        scheduler = mock(ScheduledExecutorService.class);
+
+        // Run on the calling thread so that the writes can be asserted right away
+        writer = new PendingTaskWriter(failingDAO, Runnable::run, scheduler, mock(SentryHelper.class), () -> {
+        });
+    }
+
+    @Test
+    public void failed_write_is_retried_in_order() {
+        doThrow(new IllegalStateException("disk full")).doCallRealMethod().when(failingDAO).insertAll(any());
+
+        List<PendingTask> stored = new ArrayList<>();
+        writer.enqueue(new HashMap<>(), PendingTaskType.API_SEND_EVENT, stored::add);
+        writer.enqueue(new HashMap<>(), PendingTaskType.API_UPDATE_PROFILE, stored::add);
+
+        // The first write failed, nothing is lost and a retry is scheduled
+        assertThat(stored).isEmpty();
+        assertThat(writer.getQueuedCount()).isEqualTo(2);
+        verify(scheduler).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        writer.flush();
+
+        assertThat(writer.getQueuedCount()).isEqualTo(0);
+        assertThat(stored).hasSize(2);
+        assertThat(stored.get(0).type).isEqualTo(PendingTaskType.API_SEND_EVENT);
+        assertThat(stored.get(1).type).isEqualTo(PendingTaskType.API_UPDATE_PROFILE);
+        assertThat(dao.fetchPending()).hasSize(2);
+    }
+
+    @Test
+    public void task_is_dropped_after_max_attempts() {
+        doThrow(new IllegalStateException("disk full")).when(failingDAO).insertAll(any());
+
+        writer.enqueue(new HashMap<>(), PendingTaskType.API_SEND_EVENT, null);
+
+        for (int i = 1; i < PendingTaskWriter.MAX_WRITE_ATTEMPTS; i++) {
+            assertThat(writer.getQueuedCount()).isEqualTo(1);
+            writer.flush();
+        }
+
+        assertThat(writer.getQueuedCount()).isEqualTo(0);
+        verify(failingDAO, times(PendingTaskWriter.MAX_WRITE_ATTEMPTS)).insertAll(any());
+    }
+}
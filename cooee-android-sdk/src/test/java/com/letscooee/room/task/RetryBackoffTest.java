@@ -0,0 +1,37 @@
+package com.letscooee.room.task;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class RetryBackoffTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void delay_grows_exponentially() {
+        for (int attempts = 1; attempts <= 5; attempts++) {
+            long fullDelay = RetryBackoff.BASE_DELAY_MILLIS << (attempts - 1);
+            long delay = RetryBackoff.getDelayMillis(attempts, random);
+
+            assertThat(delay).isAtLeast(fullDelay / 2);
+            assertThat(delay).isAtMost(fullDelay);
+        }
+    }
+
+    @Test
+    public void delay_is_capped() {
+        long delay = RetryBackoff.getDelayMillis(19, random);
+        assertThat(delay).isAtMost(RetryBackoff.MAX_DELAY_MILLIS);
+        assertThat(delay).isAtLeast(RetryBackoff.MAX_DELAY_MILLIS / 2);
+    }
+
+    @Test
+    public void retry_after_is_honored() {
+        long retryAfter = 24 * 60 * 60 * 1000L;
+        long nextAttemptAt = RetryBackoff.getNextAttemptAt(1, retryAfter, 1000);
+        assertThat(nextAttemptAt).isEqualTo(1000 + retryAfter);
+    }
+}
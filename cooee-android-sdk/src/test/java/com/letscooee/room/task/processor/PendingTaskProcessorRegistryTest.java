@@ -0,0 +1,68 @@
+package com.letscooee.room.task.processor;
+
+import androidx.annotation.NonNull;
+import com.letscooee.BaseTestCase;
+import com.letscooee.room.task.PendingTask;
+import com.letscooee.room.task.PendingTaskType;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class PendingTaskProcessorRegistryTest extends BaseTestCase {
+
+    private PendingTaskProcessorRegistry registry;
+    private PendingTask eventTask;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        registry = new PendingTaskProcessorRegistry();
+
+        eventTask = new PendingTask();
+        eventTask.type = PendingTaskType.API_SEND_EVENT;
+    }
+
+    @Test
+    public void register_if_absent_is_idempotent() {
+        PendingTaskProcessor first = new NoOpProcessor();
+        PendingTaskProcessor second = new NoOpProcessor();
+
+        assertThat(registry.registerIfAbsent(PendingTaskType.API_SEND_EVENT, first)).isTrue();
+        assertThat(registry.registerIfAbsent(PendingTaskType.API_SEND_EVENT, second)).isFalse();
+        assertThat(registry.get(eventTask)).isSameInstanceAs(first);
+    }
+
+    @Test
+    public void register_replaces_processor() {
+        PendingTaskProcessor custom = new NoOpProcessor();
+
+        registry.registerIfAbsent(PendingTaskType.API_SEND_EVENT, new NoOpProcessor());
+        registry.register(PendingTaskType.API_SEND_EVENT, custom);
+
+        assertThat(registry.get(eventTask)).isSameInstanceAs(custom);
+    }
+
+    @Test
+    public void get_unregistered_type() {
+        PendingTask task = new PendingTask();
+        task.type = PendingTaskType.API_UPDATE_PROFILE;
+
+        registry.register(PendingTaskType.API_SEND_EVENT, new NoOpProcessor());
+
+        assertThat(registry.get(task)).isNull();
+    }
+
+    private static class NoOpProcessor implements PendingTaskProcessor {
+
+        @Override
+        public void process(@NonNull PendingTask task) {
+        }
+
+        @Override
+        public boolean canProcess(@NonNull PendingTask task) {
+            return true;
+        }
+    }
+}
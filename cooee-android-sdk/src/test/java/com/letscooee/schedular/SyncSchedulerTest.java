@@ -0,0 +1,150 @@
+package com.letscooee.schedular;
+
+import androidx.annotation.NonNull;
+import androidx.work.Configuration;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.testing.SynchronousExecutor;
+import androidx.work.testing.WorkManagerTestInitHelper;
+import com.letscooee.BaseTestCase;
+import com.letscooee.room.CooeeDatabase;
+import com.letscooee.room.task.PendingTask;
+import com.letscooee.room.task.PendingTaskType;
+import com.letscooee.room.task.processor.AbstractPendingTaskProcessor;
+import com.letscooee.utils.Closure;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class SyncSchedulerTest extends BaseTestCase {
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+
+        Configuration config = new Configuration.Builder()
+                .setExecutor(new SynchronousExecutor())
+                .build();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context, config);
+    }
+
+    private List<WorkInfo> getScheduledWork() throws Exception {
+        return WorkManager.getInstance(context).getWorkInfosForUniqueWork(SyncScheduler.UNIQUE_WORK_NAME).get();
+    }
+
+    @Test
+    public void next_delay_shrinks_with_backlog() {
+        assertThat(SyncScheduler.getNextDelay(0, 0, 0)).isEqualTo(-1);
+        assertThat(SyncScheduler.getNextDelay(5, 0, 0)).isEqualTo(SyncScheduler.DEFAULT_DELAY_MILLIS);
+        assertThat(SyncScheduler.getNextDelay(50, 0, 0)).isLessThan(SyncScheduler.DEFAULT_DELAY_MILLIS);
+        assertThat(SyncScheduler.getNextDelay(500, 0, 0)).isEqualTo(SyncScheduler.MIN_DELAY_MILLIS);
+    }
+
+    @Test
+    public void next_delay_backs_off_without_progress() {
+        long delay = SyncScheduler.getNextDelay(5, 5, SyncScheduler.DEFAULT_DELAY_MILLIS);
+        assertThat(delay).isEqualTo(SyncScheduler.DEFAULT_DELAY_MILLIS * 2);
+
+        delay = SyncScheduler.getNextDelay(5, 5, SyncScheduler.MAX_DELAY_MILLIS);
+        assertThat(delay).isEqualTo(SyncScheduler.MAX_DELAY_MILLIS);
+
+        // Backlog went down
+        delay = SyncScheduler.getNextDelay(4, 5, SyncScheduler.MAX_DELAY_MILLIS);
+        assertThat(delay).isEqualTo(SyncScheduler.DEFAULT_DELAY_MILLIS);
+    }
+
+    @Test
+    public void regular_sync_needs_network_and_battery() {
+        OneTimeWorkRequest request = SyncScheduler.newRequest(SyncScheduler.DEFAULT_DELAY_MILLIS, 0, false);
+
+        assertThat(request.getWorkSpec().constraints.getRequiredNetworkType()).isEqualTo(NetworkType.CONNECTED);
+        assertThat(request.getWorkSpec().constraints.requiresBatteryNotLow()).isTrue();
+        assertThat(request.getWorkSpec().initialDelay).isEqualTo(SyncScheduler.DEFAULT_DELAY_MILLIS);
+        assertThat(request.getWorkSpec().expedited).isFalse();
+    }
+
+    @Test
+    public void immediate_sync_is_expedited() {
+        OneTimeWorkRequest request = SyncScheduler.newRequest(0, 0, true);
+
+        assertThat(request.getWorkSpec().constraints.getRequiredNetworkType()).isEqualTo(NetworkType.CONNECTED);
+        assertThat(request.getWorkSpec().expedited).isTrue();
+    }
+
+    @Test
+    public void schedule_keeps_existing_sync() throws Exception {
+        SyncScheduler.schedule(context);
+        List<WorkInfo> scheduled = getScheduledWork();
+        assertThat(scheduled).hasSize(1);
+
+        SyncScheduler.schedule(context);
+        List<WorkInfo> rescheduled = getScheduledWork();
+        assertThat(rescheduled).hasSize(1);
+        assertThat(rescheduled.get(0).getId()).isEqualTo(scheduled.get(0).getId());
+        assertThat(rescheduled.get(0).getState()).isEqualTo(WorkInfo.State.ENQUEUED);
+    }
+
+    @Test
+    public void sync_now_replaces_scheduled_sync() throws Exception {
+        SyncScheduler.schedule(context);
+        WorkInfo scheduled = getScheduledWork().get(0);
+
+        SyncScheduler.syncNow(context);
+
+        for (WorkInfo workInfo : getScheduledWork()) {
+            if (workInfo.getId().equals(scheduled.getId())) {
+                assertThat(workInfo.getState()).isEqualTo(WorkInfo.State.CANCELLED);
+            }
+        }
+    }
+
+    @Test
+    public void token_listener_syncs_only_when_token_is_acquired() throws Exception {
+        Closure<Boolean> listener = SyncScheduler.newTokenStateListener(context);
+
+        // Token was already there
+        listener.call(true);
+        assertThat(getScheduledWork()).isEmpty();
+
+        listener.call(false);
+        listener.call(true);
+        assertThat(getScheduledWork()).hasSize(1);
+    }
+
+    @Test
+    public void failed_task_after_drained_backlog_schedules_sync() throws Exception {
+        // The last run drained the backlog, nothing is scheduled after it
+        SyncScheduler.scheduleNext(context, 0, 0, 5, SyncScheduler.DEFAULT_DELAY_MILLIS);
+        assertThat(getScheduledWork()).isEmpty();
+
+        PendingTask task = new PendingTask();
+        task.type = PendingTaskType.API_SEND_EVENT;
+        task.data = "{}";
+        task.dateCreated = new Date().getTime();
+        task.id = CooeeDatabase.getInstance(context).pendingTaskDAO().insert(task);
+
+        // Like the immediate attempt of a new task failing with a 5xx while online
+        new AbstractPendingTaskProcessor<Object>(context) {
+            @Override
+            public void process(@NonNull PendingTask task) {
+                this.updateAttempted(task, 0);
+            }
+
+            @Override
+            public boolean canProcess(@NonNull PendingTask task) {
+                return true;
+            }
+        }.process(task);
+
+        List<WorkInfo> scheduled = getScheduledWork();
+        assertThat(scheduled).hasSize(1);
+        assertThat(scheduled.get(0).getState()).isEqualTo(WorkInfo.State.ENQUEUED);
+    }
+}
@@ -0,0 +1,134 @@
+package com.letscooee.task;
+
+import com.letscooee.BaseTestCase;
+import com.letscooee.task.CooeeThreadPoolExecutor.RejectionPolicy;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class CooeeThreadPoolExecutorTest extends BaseTestCase {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private CooeeThreadPoolExecutor executor;
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        release.countDown();
+        executor.shutdownNow();
+        super.tearDown();
+    }
+
+    /**
+     * Occupy the only thread and fill the queue of one task.
+     */
+    private void fill(CountDownLatch started) {
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.execute(() -> {
+        });
+    }
+
+    @Test
+    public void names_the_threads() throws Exception {
+        executor = new CooeeThreadPoolExecutor("test", 1, 1, 1, RejectionPolicy.DISCARD);
+
+        String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+        assertThat(threadName).isEqualTo("cooee-test-1");
+    }
+
+    @Test
+    public void discards_when_queue_is_full() throws Exception {
+        executor = new CooeeThreadPoolExecutor("test", 1, 1, 1, RejectionPolicy.DISCARD);
+        CountDownLatch started = new CountDownLatch(1);
+        fill(started);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<?> dropped = executor.submit(() -> {
+        });
+
+        assertThat(dropped.isCancelled()).isTrue();
+
+        ExecutorMetrics metrics = executor.getMetrics();
+        assertThat(metrics.getName()).isEqualTo("test");
+        assertThat(metrics.getRejectedTasks()).isEqualTo(1);
+        assertThat(metrics.getQueueDepth()).isEqualTo(1);
+        assertThat(metrics.getQueueCapacity()).isEqualTo(1);
+        assertThat(metrics.getActiveThreads()).isEqualTo(1);
+    }
+
+    @Test
+    public void runs_on_caller_when_queue_is_full() throws Exception {
+        executor = new CooeeThreadPoolExecutor("test", 1, 1, 1, RejectionPolicy.CALLER_RUNS);
+        CountDownLatch started = new CountDownLatch(1);
+        fill(started);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        Thread caller = new Thread(() -> executor.execute(() -> ranOn.set(Thread.currentThread())));
+        caller.start();
+        caller.join(5000);
+
+        assertThat(ranOn.get()).isSameInstanceAs(caller);
+        assertThat(executor.getRejectedTaskCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void discards_caller_runs_task_on_main_thread() throws Exception {
+        executor = new CooeeThreadPoolExecutor("test", 1, 1, 1, RejectionPolicy.CALLER_RUNS);
+        CountDownLatch started = new CountDownLatch(1);
+        fill(started);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertThat(ranOn.get()).isNull();
+        assertThat(executor.getRejectedTaskCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void unbounded_pool_never_drops_on_main_thread() throws Exception {
+        executor = new CooeeThreadPoolExecutor("test", 1, 1, CooeeThreadPoolExecutor.UNBOUNDED,
+                RejectionPolicy.CALLER_RUNS);
+        CountDownLatch started = new CountDownLatch(1);
+        fill(started);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CountDownLatch ran = new CountDownLatch(5000);
+        for (int i = 0; i < 5000; i++) {
+            executor.execute(ran::countDown);
+        }
+        release.countDown();
+
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.getRejectedTaskCount()).isEqualTo(0);
+        assertThat(executor.getMetrics().getQueueCapacity()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void records_task_times() throws Exception {
+        executor = new CooeeThreadPoolExecutor("test", 1, 1, 10, RejectionPolicy.DISCARD);
+
+        for (int i = 0; i < 3; i++) {
+            executor.submit(() -> Thread.sleep(10)).get(5, TimeUnit.SECONDS);
+        }
+
+        ExecutorMetrics metrics = executor.getMetrics();
+        assertThat(metrics.getAverageRunMillis()).isAtLeast(10.0);
+        assertThat(metrics.getMaxWaitMillis()).isAtLeast(metrics.getAverageWaitMillis());
+        assertThat(metrics.getRejectedTasks()).isEqualTo(0);
+    }
+}
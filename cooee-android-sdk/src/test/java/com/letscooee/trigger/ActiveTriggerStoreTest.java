@@ -0,0 +1,80 @@
+package com.letscooee.trigger;
+
+import androidx.room.Room;
+import com.letscooee.BaseTestCase;
+import com.letscooee.models.trigger.EmbeddedTrigger;
+import com.letscooee.room.CooeeDatabase;
+import com.letscooee.room.storage.KeyValueStore;
+import com.letscooee.utils.Constants;
+import com.letscooee.utils.LocalStorageHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ActiveTriggerStoreTest extends BaseTestCase {
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        database = Room.inMemoryDatabaseBuilder(context, CooeeDatabase.class).allowMainThreadQueries().build();
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        database.close();
+        super.tearDown();
+    }
+
+    private EmbeddedTrigger createTrigger(String id, long expiresInMillis) {
+        return new EmbeddedTrigger(id, "E-" + id, new Date().getTime() + expiresInMillis);
+    }
+
+    @Test
+    public void migrates_preferences_and_evicts_expired_triggers() {
+        List<EmbeddedTrigger> stored = Arrays.asList(
+                createTrigger("T3", 60000),
+                createTrigger("T1", -60000),
+                createTrigger("T2", 30000)
+        );
+        LocalStorageHelper.putEmbeddedTriggersImmediately(context, Constants.STORAGE_ACTIVATED_TRIGGERS, stored);
+        LocalStorageHelper.putEmbeddedTriggerImmediately(context, Constants.STORAGE_ACTIVE_TRIGGER, stored.get(0));
+
+        KeyValueStore keyValueStore = new KeyValueStore(context, database);
+        assertThat(LocalStorageHelper.getString(context, Constants.STORAGE_ACTIVATED_TRIGGERS, null)).isNull();
+        assertThat(keyValueStore.getAll(KeyValueStore.COLLECTION_ACTIVATED_TRIGGERS, EmbeddedTrigger.class))
+                .hasSize(2);
+
+        ActiveTriggerStore store = new ActiveTriggerStore(keyValueStore);
+        ArrayList<EmbeddedTrigger> triggers = store.getActivatedTriggers();
+
+        assertThat(triggers).hasSize(2);
+        for (EmbeddedTrigger trigger : triggers) {
+            assertThat(trigger.getTriggerID()).isNotEqualTo("T1");
+        }
+        assertThat(store.getActiveTrigger().getTriggerID()).isEqualTo("T3");
+    }
+
+    @Test
+    public void activate_sets_active_trigger_but_skips_expired() {
+        ActiveTriggerStore store = new ActiveTriggerStore(new KeyValueStore(context, database));
+
+        store.activate(createTrigger("T1", 60000));
+        store.activate(createTrigger("T1", 90000));
+        store.activate(createTrigger("T2", -60000));
+
+        assertThat(store.getActivatedTriggers()).hasSize(1);
+        assertThat(store.getActiveTrigger().getTriggerID()).isEqualTo("T2");
+
+        store.setActiveTrigger(null);
+        assertThat(store.getActiveTrigger()).isNull();
+    }
+}
@@ -8,6 +8,7 @@ import com.letscooee.BaseTestCase;
 import com.letscooee.models.trigger.EmbeddedTrigger;
 import com.letscooee.models.trigger.TriggerData;
 import com.letscooee.room.CooeeDatabase;
+import com.letscooee.room.storage.KeyValueStore;
 import com.letscooee.trigger.adapters.TriggerGsonDeserializer;
 import org.junit.After;
 import org.junit.Before;
@@ -35,7 +36,8 @@ public class EngagementTriggerHelperTest extends BaseTestCase {
         context = RuntimeEnvironment.getApplication().getApplicationContext();
         loadPayload();
         createActivity();
-        database = Room.inMemoryDatabaseBuilder(context, CooeeDatabase.class).build();
+        database = Room.inMemoryDatabaseBuilder(context, CooeeDatabase.class).allowMainThreadQueries().build();
+        ActiveTriggerStore.setInstance(new ActiveTriggerStore(new KeyValueStore(context, database)));
         engagementTriggerHelper = new EngagementTriggerHelper(context);
         engagementTriggerHelperMock = Mockito.spy(engagementTriggerHelper);
         expiredTriggerData = TriggerGsonDeserializer.getGson().fromJson(samplePayload, TriggerData.class);
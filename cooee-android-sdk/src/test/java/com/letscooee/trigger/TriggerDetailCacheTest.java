@@ -0,0 +1,88 @@
+package com.letscooee.trigger;
+
+import androidx.room.Room;
+import com.letscooee.BaseTestCase;
+import com.letscooee.models.trigger.TriggerData;
+import com.letscooee.room.CooeeDatabase;
+import com.letscooee.room.storage.KeyValueStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class TriggerDetailCacheTest extends BaseTestCase {
+
+    private KeyValueStore keyValueStore;
+    private TriggerDetailCache cache;
+
+    @Before
+    @Override
+    public void setUp() {
+        super.setUp();
+        database = Room.inMemoryDatabaseBuilder(context, CooeeDatabase.class).allowMainThreadQueries().build();
+        keyValueStore = new KeyValueStore(context, database);
+        cache = new TriggerDetailCache(context, keyValueStore);
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        database.close();
+        super.tearDown();
+    }
+
+    private TriggerData createTrigger(String id, long expiresInMillis) {
+        String json = "{\"id\":\"" + id + "\",\"v\":4.0,\"expireAt\":" + (new Date().getTime() + expiresInMillis) + "}";
+        return gson.fromJson(json, TriggerData.class);
+    }
+
+    private Map<String, Object> createInApp(String id) {
+        return Collections.singletonMap("bg", id);
+    }
+
+    @Test
+    public void returns_stored_details() {
+        cache.put(createTrigger("T1", 60000), createInApp("T1"));
+
+        Map<?, ?> rawInApp = cache.get("T1");
+
+        assertThat(rawInApp).isNotNull();
+        assertThat(rawInApp.get("bg")).isEqualTo("T1");
+        assertThat(cache.get("T2")).isNull();
+    }
+
+    @Test
+    public void does_not_store_expired_trigger() {
+        cache.put(createTrigger("T1", -60000), createInApp("T1"));
+
+        assertThat(cache.get("T1")).isNull();
+    }
+
+    @Test
+    public void evicts_expired_details() {
+        keyValueStore.put(KeyValueStore.COLLECTION_TRIGGER_DETAILS, "T1", createInApp("T1"),
+                new Date().getTime() - 1000);
+
+        assertThat(cache.get("T1")).isNull();
+        assertThat(keyValueStore.getAll(KeyValueStore.COLLECTION_TRIGGER_DETAILS, Map.class)).isEmpty();
+    }
+
+    @Test
+    public void keeps_only_the_recent_details() throws InterruptedException {
+        for (int i = 0; i <= TriggerDetailCache.MAX_ITEMS; i++) {
+            cache.put(createTrigger("T" + i, 60000), createInApp("T" + i));
+            // date_updated is in milliseconds
+            Thread.sleep(2);
+        }
+
+        assertThat(keyValueStore.getAll(KeyValueStore.COLLECTION_TRIGGER_DETAILS, Map.class))
+                .hasSize(TriggerDetailCache.MAX_ITEMS);
+        assertThat(cache.get("T0")).isNull();
+        assertThat(cache.get("T" + TriggerDetailCache.MAX_ITEMS)).isNotNull();
+    }
+}
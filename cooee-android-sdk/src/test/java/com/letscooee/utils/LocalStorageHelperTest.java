@@ -6,6 +6,8 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static com.google.common.truth.Truth.assertThat;
 
@@ -103,4 +105,40 @@ public class LocalStorageHelperTest extends BaseTestCase {
         long storedLong = LocalStorageHelper.getLong(context, KEY, 0);
         assertThat(storedLong).isEqualTo(testLong);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void put_string_async() throws Exception {
+        LocalStorageHelper.putStringAsync(context, KEY, "first");
+        Future<Boolean> result = LocalStorageHelper.putStringAsync(context, KEY, "second");
+
+        // Readable before it is written
+        assertThat(LocalStorageHelper.getString(context, KEY, null)).isEqualTo("second");
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(LocalStorageHelper.getPreferences(context).getString(KEY, null)).isEqualTo("second");
+
+        LocalStorageHelper.removeAsync(context, KEY).get(5, TimeUnit.SECONDS);
+        assertThat(LocalStorageHelper.getString(context, KEY, null)).isNull();
+    }
+
+    @Test
+    public void cancelling_one_write_keeps_the_batch() throws Exception {
+        Future<Boolean> cancelled = LocalStorageHelper.putStringAsync(context, KEY, "first");
+        Future<Boolean> result = LocalStorageHelper.putStringAsync(context, "OTHER_KEY", "second");
+
+        assertThat(cancelled.cancel(true)).isFalse();
+
+        assertThat(result.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(cancelled.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(LocalStorageHelper.getPreferences(context).getString(KEY, null)).isEqualTo("first");
+    }
+
+    @Test
+    public void detects_blocking_write_on_main_thread() throws Exception {
+        LocalStorageHelper.putStringAsync(context, KEY, "value").get(5, TimeUnit.SECONDS);
+        assertThat(MainThreadStorageDetector.getViolations()).isEmpty();
+
+        LocalStorageHelper.putStringImmediately(context, KEY, "value");
+        assertThat(MainThreadStorageDetector.getViolations()).hasSize(1);
+    }
+}
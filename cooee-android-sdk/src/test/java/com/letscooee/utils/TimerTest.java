@@ -0,0 +1,39 @@
+package com.letscooee.utils;
+
+import com.letscooee.BaseTestCase;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class TimerTest extends BaseTestCase {
+
+    @Test
+    public void stop_cancels_only_own_tasks() throws Exception {
+        Timer stoppedTimer = new Timer();
+        Timer runningTimer = new Timer();
+        AtomicBoolean stoppedTaskRan = new AtomicBoolean(false);
+        CountDownLatch runningTaskRan = new CountDownLatch(1);
+
+        stoppedTimer.schedule(() -> stoppedTaskRan.set(true), 50);
+        runningTimer.schedule(runningTaskRan::countDown, 100);
+        stoppedTimer.stop();
+
+        assertThat(runningTaskRan.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stoppedTaskRan.get()).isFalse();
+        assertThat(stoppedTimer.isShutdown()).isTrue();
+        assertThat(runningTimer.isShutdown()).isFalse();
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void rejects_after_stop() {
+        Timer timer = new Timer();
+        timer.stop();
+        timer.schedule(() -> {
+        }, 10);
+    }
+}
@@ -0,0 +1,64 @@
+package com.letscooee.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.Metric;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import kotlin.Unit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the cold start of the tester app. The build type of this module decides if the app is measured with the
+ * SDK (<code>benchmark</code>) or without it (<code>benchmarkNoSdk</code>). With the SDK, the time spent in the
+ * main thread phases of the SDK (the trace sections added by <code>StartupTracer</code>) is measured as well.
+ *
+ * @since 1.3.12
+ */
+@RunWith(AndroidJUnit4.class)
+public class ColdStartupBenchmark {
+
+    private static final String PACKAGE_NAME = "com.letscooee.tester";
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void coldStartup() {
+        benchmarkRule.measureRepeated(
+                PACKAGE_NAME,
+                getMetrics(),
+                new CompilationMode.None(),
+                StartupMode.COLD,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    return Unit.INSTANCE;
+                });
+    }
+
+    private static List<Metric> getMetrics() {
+        List<Metric> metrics = new ArrayList<>();
+        metrics.add(new StartupTimingMetric());
+
+        // The sections only exist when the SDK is initialized
+        if (BuildConfig.BUILD_TYPE.equals("benchmark")) {
+            metrics.add(new TraceSectionMetric("Cooee.bootstrap"));
+            metrics.add(new TraceSectionMetric("Cooee.factoryInit"));
+        }
+
+        return metrics;
+    }
+}